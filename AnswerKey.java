@@ -0,0 +1,52 @@
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * Salted answer digests, so loaded puzzles don't carry their correct
+ * option in plain form (e.g. readable from a heap dump).
+ *
+ * A key is the first 8 bytes of SHA-256(session salt, puzzle id, answer).
+ * The salt is random per run, so keys are only meaningful in this session.
+ * Checking an answer is one hash of a few bytes, no database round trip.
+ */
+public final class AnswerKey {
+
+    private static final byte[] SESSION_SALT = new byte[16];
+    static {
+        new SecureRandom().nextBytes(SESSION_SALT);
+    }
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private AnswerKey() {}
+
+    /** Key for the correct answer of a puzzle */
+    public static long seal(String puzzleId, int answerIndex) {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        digest.update(SESSION_SALT);
+        digest.update(puzzleId.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update((byte) answerIndex);
+        byte[] hash = digest.digest();
+
+        long key = 0;
+        for (int i = 0; i < 8; i++) {
+            key = (key << 8) | (hash[i] & 0xFF);
+        }
+        return key;
+    }
+
+    /** True if selectedAnswer is the answer the key was sealed with */
+    public static boolean matches(long key, String puzzleId, int selectedAnswer) {
+        return seal(puzzleId, selectedAnswer) == key;
+    }
+}
@@ -0,0 +1,124 @@
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of decoded images.
+ *
+ * Each image is decoded once, already scaled to the size it is drawn at,
+ * so nodes and canvases don't rescale it every frame. Animation frames are
+ * packed side by side into one SpriteAtlas image; an ImageView switches
+ * frames by changing its viewport. Safe to call from any thread.
+ *
+ *   Image sparkle = AssetCache.getScaled("sparkle.png", 25, 25, false);
+ *   AssetCache.SpriteAtlas walk = AssetCache.getAtlas(36, "player1.png", "player2.png");
+ */
+public final class AssetCache {
+
+    // Resources live in /player on the class path; the folders are fallbacks for IDE runs
+    private static final String RESOURCE_DIR = "/player/";
+    private static final String[] FALLBACK_DIRS = { "src/main/resources/player/", "player/" };
+
+    private static final Map<String, Image> IMAGES = new ConcurrentHashMap<>();
+    private static final Map<String, SpriteAtlas> ATLASES = new ConcurrentHashMap<>();
+
+    private AssetCache() { }
+
+    /** Frames of one animation packed into a single image */
+    public static final class SpriteAtlas {
+        private final Image image;
+        private final Rectangle2D[] frames;
+
+        SpriteAtlas(Image image, Rectangle2D[] frames) {
+            this.image = image;
+            this.frames = frames;
+        }
+
+        public Image getImage() { return image; }
+        public Rectangle2D getFrame(int index) { return frames[index]; }
+        public int getFrameCount() { return frames.length; }
+        public double getCellSize() { return frames.length == 0 ? 0 : frames[0].getWidth(); }
+    }
+
+    /**
+     * An image decoded at width x height (preserveRatio fits it inside that box,
+     * like ImageView.setPreserveRatio). Null if the file can't be found or decoded.
+     */
+    public static Image getScaled(String name, double width, double height, boolean preserveRatio) {
+        String key = name + "@" + width + "x" + height + (preserveRatio ? "" : "!");
+        Image cached = IMAGES.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Image image = decode(name, width, height, preserveRatio);
+        if (image == null) {
+            return null;
+        }
+        Image previous = IMAGES.putIfAbsent(key, image);
+        return previous != null ? previous : image;
+    }
+
+    /**
+     * The named frames, each fitted into a size x size cell (aspect ratio kept,
+     * top-left aligned like a fitted ImageView), packed left to right.
+     */
+    public static SpriteAtlas getAtlas(double size, String... names) {
+        String key = String.join(",", names) + "@" + size;
+        return ATLASES.computeIfAbsent(key, k -> packAtlas(size, names));
+    }
+
+    private static SpriteAtlas packAtlas(double size, String[] names) {
+        int cell = (int) Math.ceil(size);
+        WritableImage atlas = new WritableImage(Math.max(1, cell * names.length), Math.max(1, cell));
+        Rectangle2D[] frames = new Rectangle2D[names.length];
+        for (int i = 0; i < names.length; i++) {
+            frames[i] = new Rectangle2D(i * cell, 0, cell, cell);
+            // Decoded just to fill the atlas; not kept on their own
+            Image frame = decode(names[i], size, size, true);
+            PixelReader pixels = frame == null ? null : frame.getPixelReader();
+            if (pixels != null) {
+                int w = Math.min(cell, (int) frame.getWidth());
+                int h = Math.min(cell, (int) frame.getHeight());
+                atlas.getPixelWriter().setPixels(i * cell, 0, w, h, pixels, 0, 0);
+            }
+        }
+        return new SpriteAtlas(atlas, frames);
+    }
+
+    private static Image decode(String name, double width, double height, boolean preserveRatio) {
+        String url = locate(name);
+        if (url == null) {
+            System.out.println("⚠ Image not found: " + name);
+            return null;
+        }
+        Image image = new Image(url, width, height, preserveRatio, true);
+        if (image.isError()) {
+            System.out.println("⚠ Could not decode " + name + ": " + image.getException());
+            return null;
+        }
+        return image;
+    }
+
+    /** URL of a resource image, or of a fallback file, or null */
+    private static String locate(String name) {
+        URL resource = AssetCache.class.getResource(RESOURCE_DIR + name);
+        if (resource != null) {
+            return resource.toExternalForm();
+        }
+        for (String dir : FALLBACK_DIRS) {
+            Path file = Paths.get(dir, name);
+            if (Files.isRegularFile(file)) {
+                return file.toUri().toString();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,124 @@
+import javafx.scene.media.Media;
+import javafx.scene.media.MediaPlayer;
+
+import java.io.File;
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Loads audio, video and images on background threads at startup.
+ *
+ * preload() starts every asset at once on a small "asset-loader" pool and
+ * completes as soon as the menu can be shown (the music player); the
+ * background video and the sprites keep loading behind the menu. Each
+ * asset's load time is logged and available from getTimings().
+ *
+ * Media files are parsed once and cached, so returning to the menu only
+ * creates a new MediaPlayer.
+ */
+public final class AssetPreloader {
+
+    private static final int LOADER_THREADS = 3;
+    static final String MUSIC = "music.mp3";
+    static final String BACKGROUND_VIDEO = "background.mp4";
+
+    private static final ExecutorService LOADERS = Executors.newFixedThreadPool(LOADER_THREADS, r -> {
+        Thread t = new Thread(r, "asset-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final Map<String, CompletableFuture<Media>> MEDIA = new ConcurrentHashMap<>();
+    private static final Map<String, Long> TIMINGS = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private AssetPreloader() { }
+
+    /**
+     * Starts loading everything the menu and the first level use. progress
+     * gets the fraction of assets done (on a loader thread). Completes with
+     * the music player once it is ready; the rest may still be loading.
+     */
+    public static CompletableFuture<MediaPlayer> preload(DoubleConsumer progress) {
+        CompletableFuture<MediaPlayer> music = player(MUSIC);
+        List<CompletableFuture<?>> all = List.of(
+            music,
+            media(BACKGROUND_VIDEO),
+            task("player sprites", () -> Player.loadFrames(GameScene.PLAYER_RADIUS)),
+            task("sparkle", FlickeringLight::loadSparkle)
+        );
+
+        AtomicInteger done = new AtomicInteger();
+        for (CompletableFuture<?> asset : all) {
+            asset.whenComplete((value, error) -> progress.accept((double) done.incrementAndGet() / all.size()));
+        }
+        CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0]))
+            .whenComplete((value, error) -> System.out.println("✓ All startup assets loaded"));
+        return music;
+    }
+
+    /** A parsed media file, loaded in the background on first use; completes with null if it is missing */
+    public static CompletableFuture<Media> media(String name) {
+        return MEDIA.computeIfAbsent(name, n -> task(n, () -> loadMedia(n)));
+    }
+
+    /** A new player for a media file, created off the FX thread; null if the file is missing */
+    public static CompletableFuture<MediaPlayer> player(String name) {
+        return media(name).thenApplyAsync(media -> {
+            try {
+                return media == null ? null : new MediaPlayer(media);
+            } catch (RuntimeException e) {
+                System.err.println("Warning: Could not create a player for " + name + ": " + e.getMessage());
+                return null;
+            }
+        }, LOADERS);
+    }
+
+    /** Load time per asset in nanoseconds, in completion order */
+    public static Map<String, Long> getTimings() {
+        synchronized (TIMINGS) {
+            return new LinkedHashMap<>(TIMINGS);
+        }
+    }
+
+    private static <T> CompletableFuture<T> task(String name, Supplier<T> loader) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            T value = loader.get();
+            long nanos = System.nanoTime() - start;
+            TIMINGS.put(name, nanos);
+            System.out.printf("📦 %s loaded in %.1f ms%n", name, nanos / 1e6);
+            return value;
+        }, LOADERS);
+    }
+
+    private static Media loadMedia(String name) {
+        URL url = AssetPreloader.class.getResource(name);
+        try {
+            if (url == null) {
+                // Try loading from file system as fallback
+                File file = new File(name);
+                if (file.exists()) {
+                    url = file.toURI().toURL();
+                }
+            }
+            if (url == null) {
+                System.err.println("Warning: " + name + " not found.");
+                return null;
+            }
+            return new Media(url.toExternalForm());
+        } catch (Exception e) {
+            System.err.println("Warning: Could not load " + name + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
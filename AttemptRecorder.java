@@ -0,0 +1,195 @@
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind log of puzzle attempts (table puzzle_attempts).
+ *
+ * record() only puts the attempt on a bounded queue and never waits; a
+ * background thread writes them with JDBC batch inserts whenever
+ * FLUSH_BATCH attempts are waiting or FLUSH_INTERVAL_MS has passed, so a
+ * crash loses at most one interval. While no database is attached the
+ * attempts stay queued (up to QUEUE_CAPACITY, newer ones are dropped).
+ * A row the database rejects is dropped rather than retried, so it cannot
+ * hold up the attempts behind it.
+ */
+public class AttemptRecorder {
+
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int FLUSH_BATCH = 50;
+    private static final long FLUSH_INTERVAL_MS = 2000;
+
+    private static final String CREATE_TABLE =
+        "CREATE TABLE IF NOT EXISTS puzzle_attempts (" +
+        "id BIGINT PRIMARY KEY AUTO_INCREMENT, " +
+        "session_id VARCHAR(36) NOT NULL, " +
+        "puzzle_id VARCHAR(32) NOT NULL, " +
+        "subject VARCHAR(50) NOT NULL, " +
+        "correct BOOLEAN NOT NULL, " +
+        "response_ms INT NOT NULL, " +
+        "level INT NOT NULL, " +
+        "attempted_at TIMESTAMP NOT NULL, " +
+        "INDEX idx_attempts_session (session_id))";
+    private static final String INSERT_ATTEMPT =
+        "INSERT INTO puzzle_attempts (session_id, puzzle_id, subject, correct, response_ms, level, attempted_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final AttemptRecorder INSTANCE = new AttemptRecorder();
+
+    public static AttemptRecorder getInstance() {
+        return INSTANCE;
+    }
+
+    /** One answered (or timed out) puzzle */
+    public static final class Attempt {
+        final String sessionId;
+        final String puzzleId;
+        final Subject subject;
+        final boolean correct;
+        final long responseMillis;
+        final int level;
+        final long attemptedAt;
+
+        public Attempt(String sessionId, Puzzle puzzle, boolean correct, long responseMillis, int level) {
+            this.sessionId = sessionId;
+            this.puzzleId = puzzle.getId();
+            this.subject = puzzle.getSubject();
+            this.correct = correct;
+            this.responseMillis = responseMillis;
+            this.level = level;
+            this.attemptedAt = System.currentTimeMillis();
+        }
+    }
+
+    private final BlockingQueue<Attempt> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    // Drained but not yet written (kept for the next try if the insert fails)
+    private final List<Attempt> pending = new ArrayList<>();
+    private final Object flushLock = new Object();
+    private volatile ConnectionPool pool;
+    private boolean tableReady = false;
+    private long dropped = 0;
+
+    private AttemptRecorder() {
+        Thread writer = new Thread(this::runWriter, "attempt-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "attempt-flush"));
+    }
+
+    // ---- Game side ----
+
+    /** Queues an attempt; never blocks */
+    public void record(Attempt attempt) {
+        if (!queue.offer(attempt)) {
+            dropped++;
+            if (dropped == 1 || dropped % 1000 == 0) {
+                System.err.println("⚠ Attempt log full, dropped " + dropped + " attempts");
+            }
+        }
+    }
+
+    // ---- Connection lifecycle ----
+
+    public void attach(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    /** Writes what is queued, then stops using the pool (call before closing it) */
+    public void detach(ConnectionPool pool) {
+        if (this.pool == pool) {
+            flush();
+            this.pool = null;
+        }
+    }
+
+    // ---- Writer ----
+
+    private void runWriter() {
+        while (true) {
+            try {
+                // Wake up early once a full batch is waiting
+                long deadline = System.currentTimeMillis() + FLUSH_INTERVAL_MS;
+                while (queue.size() < FLUSH_BATCH) {
+                    long left = deadline - System.currentTimeMillis();
+                    if (left <= 0) break;
+                    Thread.sleep(Math.min(left, 100));
+                }
+                flush();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /** Writes every queued attempt in one batch; keeps them if the database is unavailable */
+    public void flush() {
+        synchronized (flushLock) {
+            // Offline the attempts wait in the bounded queue, not here
+            ConnectionPool source = pool;
+            if (source == null || source.isClosed()) {
+                return;
+            }
+            queue.drainTo(pending, QUEUE_CAPACITY - pending.size());
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            try (ConnectionPool.PooledConnection pooled = source.borrow()) {
+                if (!tableReady) {
+                    try (Statement stmt = pooled.getConnection().createStatement()) {
+                        stmt.executeUpdate(CREATE_TABLE);
+                    }
+                    tableReady = true;
+                }
+
+                PreparedStatement insert = pooled.prepare(INSERT_ATTEMPT);
+                for (Attempt a : pending) {
+                    insert.setString(1, a.sessionId);
+                    insert.setString(2, a.puzzleId);
+                    insert.setString(3, a.subject.name());
+                    insert.setBoolean(4, a.correct);
+                    insert.setLong(5, a.responseMillis);
+                    insert.setInt(6, a.level);
+                    insert.setTimestamp(7, new Timestamp(a.attemptedAt));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                System.out.println("✓ Logged " + pending.size() + " puzzle attempts");
+                pending.clear();
+            } catch (BatchUpdateException e) {
+                dropWritten(e);
+            } catch (SQLException e) {
+                System.err.println("⚠ Attempt log write failed, will retry: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * After a partly failed batch: rows that went in are already committed
+     * (auto-commit) and rows that were rejected would fail again, so both
+     * leave pending. A driver that stops at the first bad row reports fewer
+     * counts than rows; the rows after it were never tried and stay.
+     */
+    private void dropWritten(BatchUpdateException e) {
+        int[] counts = e.getUpdateCounts();
+        int tried = Math.min(pending.size(), counts.length < pending.size() ? counts.length + 1 : counts.length);
+        int rejected = 0;
+        for (int i = 0; i < tried; i++) {
+            if (i >= counts.length || counts[i] == Statement.EXECUTE_FAILED) {
+                rejected++;
+            }
+        }
+        pending.subList(0, tried).clear();
+        System.err.println("⚠ Attempt log dropped " + rejected + " rejected attempts: " + e.getMessage());
+        if (!pending.isEmpty()) {
+            System.err.println("  " + pending.size() + " attempts left for the next try");
+        }
+    }
+}
@@ -0,0 +1,203 @@
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Small fixed-size JDBC connection pool.
+ *
+ * - Connections are validated when borrowed (Connection.isValid), so a
+ *   connection that dropped mid-session is replaced instead of failing
+ *   every query until the game restarts.
+ * - Each pooled connection caches its PreparedStatements by SQL text, so
+ *   the fixed game queries are only prepared once per connection.
+ * - Statements handed out by a pooled connection have a query timeout, so
+ *   a stalled server fails the query instead of holding the caller forever.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    static final int QUERY_TIMEOUT_SECONDS = 10;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private int openCount = 0;
+    private boolean closed = false;
+
+    /** A borrowed connection; close() gives it back to the pool */
+    public class PooledConnection implements AutoCloseable {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        /** Prepared statement for this SQL, prepared once and then reused */
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null || statement.isClosed()) {
+                statement = connection.prepareStatement(sql);
+                statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+                statements.put(sql, statement);
+            } else {
+                statement.clearParameters();
+            }
+            return statement;
+        }
+
+        /** A one-off statement with the query timeout set; the caller closes it */
+        public Statement createStatement() throws SQLException {
+            Statement statement = connection.createStatement();
+            statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            return statement;
+        }
+
+        @Override
+        public void close() {
+            release(this);
+        }
+
+        private void closeQuietly() {
+            for (PreparedStatement statement : statements.values()) {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                    // Connection is being dropped anyway
+                }
+            }
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // Connection is being dropped anyway
+            }
+        }
+    }
+
+    public ConnectionPool(String url, String user, String password, int maxSize, long borrowTimeoutMillis) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = Math.max(1, maxSize);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    /**
+     * Borrow a valid connection, opening a new one if the pool is not full.
+     * Waits up to the borrow timeout when all connections are in use.
+     */
+    public PooledConnection borrow() throws SQLException {
+        long deadline = System.currentTimeMillis() + borrowTimeoutMillis;
+        while (true) {
+            PooledConnection candidate = null;
+            boolean open = false;
+            synchronized (this) {
+                if (closed) {
+                    throw new SQLException("Connection pool is closed");
+                }
+                if (!idle.isEmpty()) {
+                    candidate = idle.pop();
+                } else if (openCount < maxSize) {
+                    openCount++;
+                    open = true;
+                } else {
+                    long wait = deadline - System.currentTimeMillis();
+                    if (wait <= 0) {
+                        throw new SQLException("Timed out waiting for a database connection");
+                    }
+                    try {
+                        wait(wait);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted waiting for a database connection", e);
+                    }
+                    continue;
+                }
+            }
+
+            // Network I/O happens outside the lock
+            if (open) {
+                try {
+                    return new PooledConnection(DriverManager.getConnection(url, user, password));
+                } catch (SQLException e) {
+                    discard(null);
+                    throw e;
+                }
+            }
+            if (isValid(candidate)) {
+                return candidate;
+            }
+            System.out.println("⚠ Dropping dead database connection");
+            discard(candidate);
+        }
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        synchronized (this) {
+            if (!closed) {
+                idle.push(pooled);
+                notifyAll();
+                return;
+            }
+            openCount--;
+        }
+        pooled.closeQuietly();
+    }
+
+    private void discard(PooledConnection pooled) {
+        synchronized (this) {
+            openCount--;
+            notifyAll();
+        }
+        if (pooled != null) {
+            pooled.closeQuietly();
+        }
+    }
+
+    public synchronized int getOpenCount() {
+        return openCount;
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /** Close idle connections now; borrowed ones are closed when returned */
+    @Override
+    public void close() {
+        Deque<PooledConnection> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayDeque<>(idle);
+            openCount -= idle.size();
+            idle.clear();
+            notifyAll();
+        }
+        for (PooledConnection pooled : toClose) {
+            pooled.closeQuietly();
+        }
+    }
+}
@@ -1,10 +1,23 @@
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 /**
  * Manages database connection and puzzle queries.
  * 
+ * STORAGE BACKEND (-Dlightsout.db=...):
+ * =====================================
+ * 
+ * embedded (default): a local H2 database file in the data folder. It is
+ * created from database_setup.sql on first run; no server needed. Put
+ * h2-x.x.x.jar in the lib folder.
+ * 
+ * mysql: the MySQL server configured below; follow the setup steps below.
+ * 
  * DATABASE SETUP INSTRUCTIONS:
  * ============================
  * 
@@ -42,125 +55,322 @@ import java.util.List;
 public class DatabaseManager {
     
     // ========== CHANGE THESE TO MATCH YOUR DATABASE SETUP ==========
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/lightsout_game";
+    // rewriteBatchedStatements sends JDBC batches (importer, attempt log) as multi-row INSERTs
+    private static final String DB_URL = "jdbc:mysql://localhost:3306/lightsout_game?rewriteBatchedStatements=true";
     private static final String DB_USER = "root";  // Change to your MySQL username
     private static final String DB_PASSWORD = "";   // Change to your MySQL password
+    // "embedded" (local H2 file, no server) or "mysql"; override with -Dlightsout.db=mysql
+    private static final String DB_BACKEND = System.getProperty("lightsout.db", "embedded");
+    private static final String EMBEDDED_DB_PATH = "data/lightsout";
+    // Offline question bank (see PuzzlePackExporter); override with -Dlightsout.pack=path
+    static final String PUZZLE_PACK_PATH = System.getProperty("lightsout.pack", "puzzles.pack");
+    // Pool size can be overridden with -Dlightsout.db.poolSize=N
+    private static final int DB_POOL_SIZE = Integer.getInteger("lightsout.db.poolSize", 2);
+    private static final long DB_BORROW_TIMEOUT_MS = 5000;
+    // After a failed connect, don't try again (and pay the timeout) for this long
+    private static final long RECONNECT_BACKOFF_MS = 30_000;
     // ================================================================
     
-    private Connection connection;
+    private final StorageBackend backend;
+    private final boolean driverLoaded;
+    private ConnectionPool pool;
+    private int[] idRange;  // MIN(id), MAX(id) for random pivots; read once per connection
+    private final PuzzleBank bank = PuzzleBank.getInstance();
+    
+    // Opened on first offline use, shared by all games
+    private static PuzzlePack offlinePack;
+    private static boolean offlinePackChecked = false;
+    
+    // When the last connect failed (0 = it didn't); shared so a new game doesn't retry at once
+    private static volatile long connectFailedAt = 0;
     
     /**
      * Initialize database connection
      */
     public DatabaseManager() {
-        try {
-            // Load MySQL JDBC Driver
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            System.out.println("✓ MySQL JDBC Driver loaded");
-        } catch (ClassNotFoundException e) {
-            System.err.println("✗ MySQL JDBC Driver not found!");
-            System.err.println("  Download from: https://dev.mysql.com/downloads/connector/j/");
-            System.err.println("  Place mysql-connector-java-x.x.x.jar in your classpath");
+        backend = createBackend();
+        driverLoaded = backend.loadDriver();
+    }
+    
+    /** The backend selected by -Dlightsout.db (also used by the importer tools) */
+    static StorageBackend createBackend() {
+        if ("mysql".equalsIgnoreCase(DB_BACKEND)) {
+            return new MySqlBackend(DB_URL, DB_USER, DB_PASSWORD);
         }
+        return new EmbeddedBackend(EMBEDDED_DB_PATH);
     }
     
     /**
-     * Connect to the database
+     * Connect to the database. Returns false right away for a while after a
+     * failed attempt instead of waiting on an unreachable server again.
      */
     public boolean connect() {
-        try {
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            System.out.println("✓ Database connected successfully");
-            return true;
+        disconnect();
+        if (!driverLoaded) {
+            return false;
+        }
+        long sinceFailure = System.currentTimeMillis() - connectFailedAt;
+        if (connectFailedAt != 0 && sinceFailure < RECONNECT_BACKOFF_MS) {
+            System.out.println("⏳ Database unavailable, next connect attempt in "
+                               + (RECONNECT_BACKOFF_MS - sinceFailure) / 1000 + " s");
+            return false;
+        }
+        
+        ConnectionPool newPool = backend.createPool(DB_POOL_SIZE, DB_BORROW_TIMEOUT_MS);
+        // Open the first connection right away so a missing server is noticed here
+        try (ConnectionPool.PooledConnection first = newPool.borrow()) {
+            backend.prepare(first.getConnection());
+            SchemaMigrations.apply(first.getConnection());
+            idRange = null;
+            pool = newPool;
+            connectFailedAt = 0;
+            System.out.println("✓ Database connected successfully (" + backend.getName()
+                               + ", pool size " + DB_POOL_SIZE + ")");
         } catch (SQLException e) {
+            newPool.close();
+            connectFailedAt = System.currentTimeMillis();
             System.err.println("✗ Database connection failed: " + e.getMessage());
-            System.err.println("  Make sure MySQL is running and database 'lightsout_game' exists");
+            System.err.println("  " + backend.getSetupHint());
             return false;
         }
+        
+        // Queued puzzle attempts can be written from now on
+        AttemptRecorder.getInstance().attach(pool);
+        
+        // Fill the shared puzzle bank once; later levels are served from memory
+        bank.attach(pool);
+        try {
+            bank.loadIfNeeded();
+        } catch (SQLException e) {
+            System.err.println("⚠ Puzzle bank load failed: " + e.getMessage());
+        }
+        return true;
     }
     
     /**
      * Close database connection
      */
     public void disconnect() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("✓ Database disconnected");
-            }
-        } catch (SQLException e) {
-            System.err.println("✗ Error closing database: " + e.getMessage());
+        if (pool != null) {
+            bank.detach(pool);
+            AttemptRecorder.getInstance().detach(pool);  // Writes pending attempts first
+            pool.close();
+            pool = null;
+            System.out.println("✓ Database disconnected");
         }
     }
     
     /**
-     * Load exactly 5 random puzzles from the database
+     * Load exactly 5 random puzzles for a level, balanced across subjects
+     * (harder ones from level 2 on)
      */
-    public List<Puzzle> loadPuzzlesForGame() {
+    public List<Puzzle> loadPuzzlesForGame(int level) {
         List<Puzzle> puzzles = new ArrayList<>();
         
-        // If database connection fails, return sample puzzles
-        if (connection == null && !connect()) {
-            System.out.println("⚠ Using fallback sample puzzles (database unavailable)");
+        List<Puzzle> selected = selectPuzzles(PuzzleSelection.forLevel(level, 5));
+        if (selected.isEmpty() && bank.size() == 0) {
+            System.out.println("⚠ Using offline puzzles (database unavailable)");
+            return getOfflinePuzzles(level);
+        }
+        
+        // Not enough at this difficulty: fill up with any cached puzzles
+        if (selected.size() < 5) {
+            for (Puzzle extra : bank.pick(5)) {
+                if (selected.size() < 5 && !containsId(selected, extra.getId())) {
+                    selected.add(extra);
+                }
+            }
+        }
+        
+        int[][] doorPositions = {{3, 3}, {5, 5}, {7, 8}, {9, 6}, {11, 10}};  // 5 strategic positions
+        for (Puzzle chosen : selected) {
+            int[] pos = doorPositions[puzzles.size()];
+            puzzles.add(chosen.atPosition(pos[0], pos[1]));
+            
+            String question = chosen.getQuestion();
+            System.out.println("✓ Loaded puzzle: " + question.substring(0, Math.min(30, question.length())) + "...");
+        }
+        
+        // If we got fewer than 5 puzzles, fill with offline ones
+        if (puzzles.size() < 5) {
+            System.out.println("⚠ Only " + puzzles.size() + " puzzles in database, adding offline puzzles");
+            List<Puzzle> offline = getOfflinePuzzles(level);
+            for (Puzzle extra : offline) {
+                if (puzzles.size() < 5 && !containsId(puzzles, extra.getId())) {
+                    puzzles.add(extra);
+                }
+            }
+        }
+        
+        return puzzles;
+    }
+    
+    /**
+     * Five puzzles without a database: from the memory-mapped puzzle pack if
+     * one is installed, otherwise the built-in samples. Uses no connection or
+     * instance state, so it is safe to call from any thread.
+     */
+    static List<Puzzle> getOfflinePuzzles(int level) {
+        PuzzlePack pack = getOfflinePack();
+        if (pack == null) {
             return getSamplePuzzles();
         }
         
-        String query = "SELECT id, subject, question, option1, option2, option3, option4, " +
-                       "correct_answer, time_limit FROM puzzles ORDER BY RAND() LIMIT 5";
+        List<Puzzle> picked = pack.pick(PuzzleSelection.forLevel(level, 5), new Random());
+        if (picked.size() < 5) {
+            // Pack lacks this difficulty mix; take any subject/difficulty
+            picked = pack.pick(PuzzleSelection.balanced(5, PuzzlePack.DIFFICULTIES), new Random());
+        }
         
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
+        List<Puzzle> puzzles = new ArrayList<>();
+        int[][] positions = {{3, 3}, {5, 5}, {7, 8}, {9, 6}, {11, 10}};
+        for (Puzzle p : picked) {
+            int[] pos = positions[puzzles.size()];
+            puzzles.add(p.atPosition(pos[0], pos[1]));
+        }
+        // Tiny pack: fill the rest with samples
+        List<Puzzle> samples = getSamplePuzzles();
+        while (puzzles.size() < 5) {
+            puzzles.add(samples.get(puzzles.size()));
+        }
+        return puzzles;
+    }
+    
+    private static synchronized PuzzlePack getOfflinePack() {
+        if (!offlinePackChecked) {
+            offlinePackChecked = true;
+            java.nio.file.Path file = java.nio.file.Paths.get(PUZZLE_PACK_PATH);
+            if (java.nio.file.Files.isRegularFile(file)) {
+                try {
+                    offlinePack = PuzzlePack.open(file);
+                    System.out.println("✓ Offline puzzle pack mapped: " + offlinePack.size() + " puzzles");
+                } catch (java.io.IOException e) {
+                    System.err.println("✗ Can't open puzzle pack " + file + ": " + e.getMessage());
+                }
+            }
+        }
+        return offlinePack;
+    }
+    
+    /**
+     * Random puzzles matching a selection. Served from the puzzle bank when
+     * it holds enough of each subject/difficulty, otherwise with one query
+     * on the (subject, difficulty) index. May return fewer than requested.
+     */
+    public List<Puzzle> selectPuzzles(PuzzleSelection selection) {
+        // Only go to the database while the bank is still empty. Never connects
+        // here: when offline, reconnecting is left to connect() (PuzzleService)
+        if (!bank.isLoaded() && pool != null) {
+            try {
+                bank.loadIfNeeded();
+            } catch (SQLException e) {
+                System.err.println("✗ Error loading puzzles: " + e.getMessage());
+            }
+        }
+        
+        List<Puzzle> fromBank = new ArrayList<>();
+        boolean complete = true;
+        for (Subject subject : Subject.values()) {
+            int wanted = selection.getCount(subject);
+            if (wanted == 0) continue;
+            List<Puzzle> picked = bank.pick(subject, selection.getDifficulties(), wanted);
+            complete &= picked.size() == wanted;
+            fromBank.addAll(picked);
+        }
+        if (complete || pool == null) {
+            Collections.shuffle(fromBank);
+            return fromBank;
+        }
+        
+        try {
+            List<Puzzle> fromDb = queryPuzzles(selection);
+            return fromDb.size() >= fromBank.size() ? fromDb : fromBank;
+        } catch (SQLException e) {
+            System.err.println("✗ Error selecting puzzles: " + e.getMessage());
+            return fromBank;
+        }
+    }
+    
+    /**
+     * One UNION ALL query for the whole selection. Each (subject, difficulty)
+     * pair reads the rows at and after a random id, plus the rows before it
+     * in case the pivot is near the end. Both are short range scans on the
+     * (subject, difficulty) index, so no table sort is needed.
+     */
+    private List<Puzzle> queryPuzzles(PuzzleSelection selection) throws SQLException {
+        StringBuilder sql = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+        Random random = new Random();
+        
+        try (ConnectionPool.PooledConnection pooled = pool.borrow()) {
+            if (idRange == null) {
+                try (Statement stmt = pooled.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT MIN(id), MAX(id) FROM puzzles")) {
+                    idRange = rs.next() ? new int[]{rs.getInt(1), rs.getInt(2)} : new int[]{0, 0};
+                }
+            }
             
-            int doorIndex = 0;
-            int[][] doorPositions = {{3, 3}, {5, 5}, {7, 8}, {9, 6}, {11, 10}};  // 5 strategic positions
+            for (Subject subject : Subject.values()) {
+                int wanted = selection.getCount(subject);
+                if (wanted == 0) continue;
+                for (String difficulty : selection.getDifficulties()) {
+                    int pivot = idRange[0] + random.nextInt(Math.max(1, idRange[1] - idRange[0] + 1));
+                    for (int part = 0; part < 2; part++) {
+                        if (sql.length() > 0) sql.append(" UNION ALL ");
+                        sql.append("(SELECT ").append(part).append(" AS part, ").append(PuzzleBank.PUZZLE_COLUMNS)
+                           .append(" FROM puzzles WHERE subject = ? AND difficulty = ? AND id ")
+                           .append(part == 0 ? ">=" : "<").append(" ? ORDER BY id LIMIT ").append(wanted).append(')');
+                        params.add(subject.name());
+                        params.add(difficulty);
+                        params.add(pivot);
+                    }
+                }
+            }
+            if (sql.length() == 0) {
+                return new ArrayList<>();
+            }
             
-            while (rs.next() && doorIndex < 5) {
-                String id = "db_" + rs.getInt("id");
-                String subjectStr = rs.getString("subject");
-                Subject subject = Subject.valueOf(subjectStr.toUpperCase());
-                String question = rs.getString("question");
-                
-                String[] options = {
-                    rs.getString("option1"),
-                    rs.getString("option2"),
-                    rs.getString("option3"),
-                    rs.getString("option4")
-                };
-                
-                int correctAnswer = rs.getInt("correct_answer") - 1; // Convert to 0-indexed
-                int timeLimit = rs.getInt("time_limit");
-                
-                int[] pos = doorPositions[doorIndex];
-                Puzzle puzzle = new Puzzle(id, subject, Puzzle.Type.MCQ, question, 
-                                          options, correctAnswer, null, timeLimit, 
-                                          pos[0], pos[1]);
-                puzzles.add(puzzle);
-                doorIndex++;
-                
-                System.out.println("✓ Loaded puzzle: " + question.substring(0, Math.min(30, question.length())) + "...");
+            PreparedStatement pstmt = pooled.prepare(sql.toString());
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
             }
             
-            // If we got fewer than 5 puzzles, fill with samples
-            if (puzzles.size() < 5) {
-                System.out.println("⚠ Only " + puzzles.size() + " puzzles in database, adding samples");
-                List<Puzzle> samples = getSamplePuzzles();
-                while (puzzles.size() < 5 && puzzles.size() < samples.size()) {
-                    puzzles.add(samples.get(puzzles.size()));
+            // Rows after the pivot first, then the wrapped-around ones
+            Map<Subject, List<Puzzle>> candidates = new EnumMap<>(Subject.class);
+            Map<Subject, List<Puzzle>> wrapped = new EnumMap<>(Subject.class);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Puzzle puzzle = PuzzleBank.readPuzzle(rs, 0, 0);
+                    (rs.getInt("part") == 0 ? candidates : wrapped)
+                        .computeIfAbsent(puzzle.getSubject(), k -> new ArrayList<>()).add(puzzle);
                 }
             }
             
-        } catch (SQLException e) {
-            System.err.println("✗ Error loading puzzles: " + e.getMessage());
-            return getSamplePuzzles();
+            List<Puzzle> result = new ArrayList<>();
+            for (Subject subject : Subject.values()) {
+                List<Puzzle> found = candidates.getOrDefault(subject, new ArrayList<>());
+                Collections.shuffle(found, random);
+                List<Puzzle> extra = wrapped.getOrDefault(subject, new ArrayList<>());
+                Collections.shuffle(extra, random);
+                found.addAll(extra);
+                result.addAll(found.subList(0, Math.min(selection.getCount(subject), found.size())));
+            }
+            Collections.shuffle(result, random);
+            return result;
         }
-        
-        return puzzles;
+    }
+    
+    private static boolean containsId(List<Puzzle> puzzles, String id) {
+        for (Puzzle p : puzzles) {
+            if (p.getId().equals(id)) return true;
+        }
+        return false;
     }
     
     /**
      * Fallback sample puzzles if database is unavailable
      */
-    private List<Puzzle> getSamplePuzzles() {
+    static List<Puzzle> getSamplePuzzles() {
         List<Puzzle> puzzles = new ArrayList<>();
         int[][] positions = {{3, 3}, {5, 5}, {7, 8}, {9, 6}, {11, 10}};
         
@@ -187,47 +397,10 @@ public class DatabaseManager {
         return puzzles;
     }
     
-    /**
-     * Validate answer against database
-     */
-    public boolean validateAnswer(String puzzleId, int selectedAnswer) {
-        if (!puzzleId.startsWith("db_")) {
-            // Sample puzzle, can't validate from DB
-            return false;
-        }
-        
-        try {
-            int dbId = Integer.parseInt(puzzleId.substring(3));
-            String query = "SELECT correct_answer FROM puzzles WHERE id = ?";
-            
-            // FIX: Use try-with-resources for both PreparedStatement AND ResultSet
-            try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-                
-                // FIX: Set parameter BEFORE executing query!
-                pstmt.setInt(1, dbId);
-                
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    if (rs.next()) {
-                        int correctAnswer = rs.getInt("correct_answer") - 1; // Convert to 0-indexed
-                        return selectedAnswer == correctAnswer;
-                    }
-                }
-            }
-        } catch (SQLException | NumberFormatException e) {
-            System.err.println("✗ Error validating answer: " + e.getMessage());
-        }
-        
-        return false;
-    }
-    
     /**
      * Check if database is connected
      */
     public boolean isConnected() {
-        try {
-            return connection != null && !connection.isClosed();
-        } catch (SQLException e) {
-            return false;
-        }
+        return pool != null && !pool.isClosed();
     }
 }
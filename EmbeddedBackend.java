@@ -0,0 +1,130 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * File-based H2 database stored next to the game (MySQL compatibility mode),
+ * so each machine runs standalone with no server and no TCP connect.
+ * On first run the puzzles table is missing and database_setup.sql is
+ * loaded into it automatically.
+ *
+ * Needs the H2 jar (h2-x.x.x.jar) in the lib folder.
+ */
+public class EmbeddedBackend implements StorageBackend {
+
+    private static final String SETUP_SCRIPT = "database_setup.sql";
+
+    private final String url;
+
+    /** @param path database file without extension, e.g. "data/lightsout" */
+    public EmbeddedBackend(String path) {
+        this.url = "jdbc:h2:file:" + Paths.get(path).toAbsolutePath()
+                 + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+    }
+
+    @Override
+    public String getName() {
+        return "embedded H2";
+    }
+
+    @Override
+    public boolean loadDriver() {
+        try {
+            Class.forName("org.h2.Driver");
+            System.out.println("✓ H2 JDBC Driver loaded");
+            return true;
+        } catch (ClassNotFoundException e) {
+            System.err.println("✗ H2 JDBC Driver not found!");
+            System.err.println("  Download h2-x.x.x.jar from https://h2database.com and place it in the lib folder");
+            System.err.println("  (or start with -Dlightsout.db=mysql to use a MySQL server)");
+            return false;
+        }
+    }
+
+    @Override
+    public ConnectionPool createPool(int maxSize, long borrowTimeoutMillis) {
+        return new ConnectionPool(url, "sa", "", maxSize, borrowTimeoutMillis);
+    }
+
+    @Override
+    public void prepare(Connection connection) throws SQLException {
+        try (ResultSet tables = connection.getMetaData().getTables(null, null, "puzzles", null)) {
+            if (tables.next()) {
+                return;
+            }
+        }
+
+        long start = System.nanoTime();
+        List<String> statements;
+        try {
+            statements = splitScript(new String(Files.readAllBytes(Paths.get(SETUP_SCRIPT)),
+                                                StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new SQLException("Can't read " + SETUP_SCRIPT + ": " + e.getMessage(), e);
+        }
+
+        int run = 0;
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : statements) {
+                // The embedded file is the database; SELECTs are only the script's checks
+                String head = sql.toUpperCase();
+                if (head.startsWith("CREATE DATABASE") || head.startsWith("USE ")
+                        || head.startsWith("SELECT")) {
+                    continue;
+                }
+                stmt.execute(sql);
+                run++;
+            }
+        }
+        System.out.printf("✓ Created embedded database from %s (%d statements, %.0f ms)%n",
+                          SETUP_SCRIPT, run, (System.nanoTime() - start) / 1e6);
+    }
+
+    @Override
+    public String getSetupHint() {
+        Path file = Paths.get(SETUP_SCRIPT).toAbsolutePath();
+        return "Check that " + file + " exists and the data folder is writable";
+    }
+
+    /** Splits a SQL script on ';' outside quotes, dropping '--' comment lines */
+    static List<String> splitScript(String script) {
+        StringBuilder clean = new StringBuilder();
+        for (String line : script.split("\r?\n")) {
+            if (!line.trim().startsWith("--")) {
+                clean.append(line).append('\n');
+            }
+        }
+
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuote = false;
+        for (int i = 0; i < clean.length(); i++) {
+            char c = clean.charAt(i);
+            if (c == '\'') {
+                inQuote = !inQuote;  // '' inside a literal toggles twice, so it stays quoted
+            }
+            if (c == ';' && !inQuote) {
+                String sql = current.toString().trim();
+                if (!sql.isEmpty()) {
+                    statements.add(sql);
+                }
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        String last = current.toString().trim();
+        if (!last.isEmpty()) {
+            statements.add(last);
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,51 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs per-frame animation callbacks from the single game loop in GameScene,
+ * so effects don't each start their own AnimationTimer. Callbacks must be
+ * unregistered (or the scheduler cleared) when their owner goes away.
+ */
+public class FrameScheduler {
+
+    /** Called once per rendered frame with the AnimationTimer timestamp */
+    public interface FrameCallback {
+        void onFrame(long now);
+    }
+
+    private final List<FrameCallback> callbacks = new ArrayList<>();
+    private FrameCallback[] snapshot = new FrameCallback[0];
+    private boolean changed = false;
+
+    public void register(FrameCallback callback) {
+        callbacks.add(callback);
+        changed = true;
+    }
+
+    public void unregister(FrameCallback callback) {
+        if (callbacks.remove(callback)) {
+            changed = true;
+        }
+    }
+
+    /** Drop every callback, e.g. when a level is unloaded */
+    public void clear() {
+        callbacks.clear();
+        changed = true;
+    }
+
+    public int size() {
+        return callbacks.size();
+    }
+
+    /** Run all callbacks; safe against (un)registering from inside a callback */
+    public void tick(long now) {
+        if (changed) {
+            snapshot = callbacks.toArray(new FrameCallback[0]);
+            changed = false;
+        }
+        for (FrameCallback callback : snapshot) {
+            callback.onFrame(now);
+        }
+    }
+}
@@ -1,138 +1,283 @@
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
-import javafx.scene.shape.Circle;
-import javafx.scene.paint.RadialGradient;
-import javafx.scene.paint.Stop;
-import javafx.scene.paint.CycleMethod;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Random;
 
 public class GameMap extends Pane {
 
     private final int[][] layout;
     private final int tileSize;
-    private Random random = new Random(42); // Fixed seed for consistent torch placement
+    
+    // Packed copy of the layout used by the per-frame queries (see TileGrid)
+    private final TileGrid grid;
+    private final int rows, cols;
+    
+    // Chunked rendering: the map is split into square chunks of tiles that are
+    // rasterised on demand and only shown while they intersect the viewport
+    private static final int CHUNK_TILES = 16;
+    private static final int MAX_CACHED_CHUNKS = 64;
+    private BitSet torches;
+    // Flame center is this far above the torch tile's center
+    static final double TORCH_FLAME_RISE = 10;
+    private final Map<Long, Image> chunkCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Image> eldest) {
+            return size() > MAX_CACHED_CHUNKS;
+        }
+    };
+    private final Map<Long, ImageView> visibleChunks = new HashMap<>();
+    private int firstChunkRow = 0, lastChunkRow = -1;
+    private int firstChunkCol = 0, lastChunkCol = -1;
 
     public GameMap(int[][] layout, int tileSize) {
         this.layout = layout;
         this.tileSize = tileSize;
+        this.grid = new TileGrid(layout, tileSize);
+        this.rows = grid.getRows();
+        this.cols = grid.getCols();
         drawMap();
     }
 
-    /** Draw the grid based on layout array, matching map.png colors */
+    /**
+     * Prepare the map for drawing. Tiles are rasterised lazily per chunk,
+     * see updateViewport.
+     */
     private void drawMap() {
+        // Torch placement walks the whole map once so it stays the same no
+        // matter which chunks get drawn first
+        grid.load(layout);
+        torches = new BitSet(rows * cols);
+        Random random = new Random(42); // Fixed seed for consistent torch placement
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                byte tile = grid.getTile(r, c);
+                // Add torches to some path tiles (about 8% of paths)
+                if (tile != TileGrid.WALL && tile != TileGrid.EXIT && random.nextDouble() < 0.08) {
+                    torches.set(r * cols + c);
+                }
+            }
+        }
+        
+        chunkCache.clear();
+        visibleChunks.clear();
         getChildren().clear();
-        for (int r = 0; r < layout.length; r++) {
-            for (int c = 0; c < layout[r].length; c++) {
-                Rectangle tile = new Rectangle(c * tileSize, r * tileSize, tileSize, tileSize);
+        firstChunkRow = 0;
+        lastChunkRow = -1;
+        firstChunkCol = 0;
+        lastChunkCol = -1;
+    }
+    
+    /** Redraw the map, e.g. after the layout array has been modified */
+    public void refresh() {
+        if (lastChunkRow < firstChunkRow || lastChunkCol < firstChunkCol) {
+            drawMap();
+            return;
+        }
+        double[] viewport = {
+            firstChunkCol * chunkPixels(), firstChunkRow * chunkPixels(),
+            (lastChunkCol - firstChunkCol + 1) * chunkPixels(),
+            (lastChunkRow - firstChunkRow + 1) * chunkPixels()
+        };
+        drawMap();
+        updateViewport(viewport[0], viewport[1], viewport[2], viewport[3]);
+    }
+    
+    /**
+     * Show only the chunks that intersect the given rectangle (in map-local
+     * pixel coordinates). Cheap to call every frame: nothing happens unless
+     * the set of visible chunks changes.
+     */
+    public void updateViewport(double viewX, double viewY, double viewWidth, double viewHeight) {
+        int chunkRows = (getRows() + CHUNK_TILES - 1) / CHUNK_TILES;
+        int chunkCols = (getCols() + CHUNK_TILES - 1) / CHUNK_TILES;
+        double size = chunkPixels();
+        
+        int fromRow = Math.max(0, (int) Math.floor(viewY / size));
+        int toRow = Math.min(chunkRows - 1, (int) Math.floor((viewY + viewHeight) / size));
+        int fromCol = Math.max(0, (int) Math.floor(viewX / size));
+        int toCol = Math.min(chunkCols - 1, (int) Math.floor((viewX + viewWidth) / size));
+        
+        if (fromRow == firstChunkRow && toRow == lastChunkRow
+                && fromCol == firstChunkCol && toCol == lastChunkCol) {
+            return;
+        }
+        firstChunkRow = fromRow;
+        lastChunkRow = toRow;
+        firstChunkCol = fromCol;
+        lastChunkCol = toCol;
+        
+        // Drop chunks that scrolled out of view (their images stay cached)
+        visibleChunks.entrySet().removeIf(entry -> {
+            int cr = (int) (entry.getKey() >> 32);
+            int cc = (int) (long) entry.getKey();
+            if (cr < fromRow || cr > toRow || cc < fromCol || cc > toCol) {
+                getChildren().remove(entry.getValue());
+                return true;
+            }
+            return false;
+        });
+        
+        // Add chunks that scrolled into view
+        for (int cr = fromRow; cr <= toRow; cr++) {
+            for (int cc = fromCol; cc <= toCol; cc++) {
+                long key = chunkKey(cr, cc);
+                if (!visibleChunks.containsKey(key)) {
+                    ImageView view = new ImageView(getChunkImage(cr, cc));
+                    view.setLayoutX(cc * size);
+                    view.setLayoutY(cr * size);
+                    visibleChunks.put(key, view);
+                    getChildren().add(view);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Rasterise the chunks inside a rectangle into the cache without showing
+     * them, so a later updateViewport for that area only creates ImageViews.
+     */
+    public void prerender(double viewX, double viewY, double viewWidth, double viewHeight) {
+        int chunkRows = (getRows() + CHUNK_TILES - 1) / CHUNK_TILES;
+        int chunkCols = (getCols() + CHUNK_TILES - 1) / CHUNK_TILES;
+        double size = chunkPixels();
+        for (int cr = Math.max(0, (int) Math.floor(viewY / size));
+                cr <= Math.min(chunkRows - 1, (int) Math.floor((viewY + viewHeight) / size)); cr++) {
+            for (int cc = Math.max(0, (int) Math.floor(viewX / size));
+                    cc <= Math.min(chunkCols - 1, (int) Math.floor((viewX + viewWidth) / size)); cc++) {
+                getChunkImage(cr, cc);
+            }
+        }
+    }
+    
+    private double chunkPixels() {
+        return CHUNK_TILES * tileSize;
+    }
+    
+    private static long chunkKey(int chunkRow, int chunkCol) {
+        return ((long) chunkRow << 32) | (chunkCol & 0xFFFFFFFFL);
+    }
+    
+    /** Get a chunk image from the LRU cache, rasterising it if needed */
+    private Image getChunkImage(int chunkRow, int chunkCol) {
+        long key = chunkKey(chunkRow, chunkCol);
+        Image image = chunkCache.get(key);
+        if (image == null) {
+            image = renderChunk(chunkRow, chunkCol);
+            chunkCache.put(key, image);
+        }
+        return image;
+    }
+    
+    /** Rasterise one chunk of tiles, matching map.png colors */
+    private Image renderChunk(int chunkRow, int chunkCol) {
+        int fromRow = chunkRow * CHUNK_TILES;
+        int fromCol = chunkCol * CHUNK_TILES;
+        int toRow = Math.min(getRows(), fromRow + CHUNK_TILES);
+        int toCol = Math.min(getCols(), fromCol + CHUNK_TILES);
+        
+        Canvas canvas = new Canvas((toCol - fromCol) * tileSize, (toRow - fromRow) * tileSize);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.translate(-fromCol * tileSize, -fromRow * tileSize);
+        
+        // Include a one-tile border so neighbouring tile outlines overlap the
+        // chunk edges exactly as they would on one big canvas
+        for (int r = Math.max(0, fromRow - 1); r < Math.min(getRows(), toRow + 1); r++) {
+            for (int c = Math.max(0, fromCol - 1); c < Math.min(getCols(), toCol + 1); c++) {
+                double x = c * tileSize;
+                double y = r * tileSize;
                 
                 // Use cartoonish bright colors
-                switch (layout[r][c]) {
+                switch (grid.getTile(r, c)) {
                     case 1 -> {
                         // Walls - stone gray with cartoon outline
-                        tile.setFill(Color.rgb(80, 80, 90));
-                        tile.setStroke(Color.rgb(50, 50, 60));
-                        tile.setStrokeWidth(2);
+                        drawTile(gc, x, y, PaintRegistry.WALL_FILL, PaintRegistry.WALL_STROKE, 2);
                     }
                     case 2 -> {
                         // Exit - bright gold/yellow
-                        tile.setFill(Color.rgb(255, 215, 0));
-                        tile.setStroke(Color.rgb(200, 160, 0));
-                        tile.setStrokeWidth(2);
+                        drawTile(gc, x, y, PaintRegistry.EXIT_FILL, PaintRegistry.EXIT_STROKE, 2);
                     }
                     default -> {
                         // Path - light sandy color
-                        tile.setFill(Color.rgb(245, 222, 179));
-                        tile.setStroke(Color.rgb(210, 180, 140));
-                        tile.setStrokeWidth(1.5);
+                        drawTile(gc, x, y, PaintRegistry.PATH_FILL, PaintRegistry.PATH_STROKE, 1.5);
                         
-                        // Add torches to some path tiles (about 8% of paths)
-                        if (random.nextDouble() < 0.08) {
-                            addTorch(c * tileSize + tileSize/2, r * tileSize + tileSize/2);
+                        if (torches.get(r * cols + c)) {
+                            addTorch(gc, x + tileSize/2, y + tileSize/2);
                         }
                     }
                 }
-                
-                getChildren().add(tile);
             }
         }
+        
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        return canvas.snapshot(params, null);
+    }
+    
+    /** Fill and outline a single tile */
+    private void drawTile(GraphicsContext gc, double x, double y, Color fill, Color stroke, double strokeWidth) {
+        gc.setFill(fill);
+        gc.fillRect(x, y, tileSize, tileSize);
+        gc.setStroke(stroke);
+        gc.setLineWidth(strokeWidth);
+        gc.strokeRect(x, y, tileSize, tileSize);
     }
     
     /** Add a decorative torch at the given position */
-    private void addTorch(double x, double y) {
+    private void addTorch(GraphicsContext gc, double x, double y) {
         // Torch base (small brown rectangle)
-        Rectangle torchBase = new Rectangle(x - 2, y - 8, 4, 12);
-        torchBase.setFill(Color.rgb(101, 67, 33));
-        torchBase.setStroke(Color.rgb(70, 40, 20));
-        torchBase.setStrokeWidth(0.5);
-        
-        // Flame (orange circle with gradient)
-        Circle flame = new Circle(x, y - 10, 6);
-        RadialGradient gradient = new RadialGradient(
-            0, 0, 0.5, 0.5, 0.5, true, CycleMethod.NO_CYCLE,
-            new Stop(0, Color.rgb(255, 255, 150)),
-            new Stop(0.5, Color.rgb(255, 150, 0)),
-            new Stop(1, Color.rgb(255, 100, 0))
-        );
-        flame.setFill(gradient);
+        gc.setFill(PaintRegistry.TORCH_BASE);
+        gc.fillRect(x - 2, y - 8, 4, 12);
+        gc.setStroke(PaintRegistry.TORCH_OUTLINE);
+        gc.setLineWidth(0.5);
+        gc.strokeRect(x - 2, y - 8, 4, 12);
         
-        getChildren().addAll(torchBase, flame);
+        // Flame (orange circle with gradient, shared by every torch)
+        gc.setFill(PaintRegistry.TORCH_FLAME);
+        gc.fillOval(x - 6, y - TORCH_FLAME_RISE - 6, 12, 12);
     }
 
     // ---- Getters ----
     public int[][] getLayout() { return layout; }
-    public int getRows() { return layout.length; }
-    public int getCols() { return layout[0].length; }
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
     public int getTileSize() { return tileSize; }
 
+    /** Tiles that have a torch, as row * getCols() + col */
+    public int[] getTorchTiles() { return torches.stream().toArray(); }
+
+    /** Headless tile data, in map-local coordinates */
+    public TileGrid getGrid() { return grid; }
+
     /** Check if a point (world coordinates) is on the exit tile */
     public boolean isOnExit(double worldX, double worldY) {
-        int col = (int) ((worldX - getLayoutX()) / tileSize);
-        int row = (int) ((worldY - getLayoutY()) / tileSize);
-        if (row >= 0 && row < getRows() && col >= 0 && col < getCols()) {
-            return layout[row][col] == 2;
-        }
-        return false;
+        return grid.isOnExit(worldX - getLayoutX(), worldY - getLayoutY());
     }
 
     /** Circle vs wall collision detection */
     public boolean collidesWithCircle(double worldX, double worldY, double radius, boolean exitUnlocked) {
-        int centerCol = (int) ((worldX - getLayoutX()) / tileSize);
-        int centerRow = (int) ((worldY - getLayoutY()) / tileSize);
-
-        for (int r = Math.max(0, centerRow - 1); r <= Math.min(getRows() - 1, centerRow + 1); r++) {
-            for (int c = Math.max(0, centerCol - 1); c <= Math.min(getCols() - 1, centerCol + 1); c++) {
-                // Check if this tile should be treated as solid
-                int tileValue = layout[r][c];
-                boolean isSolid = (tileValue == 1) || (tileValue == 2 && !exitUnlocked);
-                
-                if (isSolid) {
-                    double rectX = getLayoutX() + c * tileSize;
-                    double rectY = getLayoutY() + r * tileSize;
-
-                    double closestX = clamp(worldX, rectX, rectX + tileSize);
-                    double closestY = clamp(worldY, rectY, rectY + tileSize);
-
-                    double dx = worldX - closestX;
-                    double dy = worldY - closestY;
-                    if (dx * dx + dy * dy < radius * radius) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+        return grid.collidesWithCircle(worldX - getLayoutX(), worldY - getLayoutY(), radius, exitUnlocked);
     }
 
     /** Check if player is on a specific tile (used for puzzle doors) */
     public boolean isOnTile(double worldX, double worldY, int tileRow, int tileCol) {
-        int col = (int) ((worldX - getLayoutX()) / tileSize);
-        int row = (int) ((worldY - getLayoutY()) / tileSize);
-        return row == tileRow && col == tileCol;
+        return getTileRow(worldY) == tileRow && getTileCol(worldX) == tileCol;
+    }
+
+    /** Tile row under a world Y coordinate (may be outside the map) */
+    public int getTileRow(double worldY) {
+        return grid.tileRow(worldY - getLayoutY());
     }
 
-    /** Utility: clamp a value between min and max */
-    private static double clamp(double v, double min, double max) {
-        return Math.max(min, Math.min(max, v));
+    /** Tile column under a world X coordinate (may be outside the map) */
+    public int getTileCol(double worldX) {
+        return grid.tileCol(worldX - getLayoutX());
     }
 }
@@ -1,6 +1,7 @@
 // GameScene.java
 import javafx.animation.AnimationTimer;
 import javafx.animation.FadeTransition;
+import javafx.animation.PauseTransition;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -16,6 +17,7 @@ import javafx.util.Duration;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class GameScene {
 
@@ -28,29 +30,38 @@ public class GameScene {
 
     private Player player;
     private GameMap map;
+    // Camera: map, doors and player live in this pane, which is scrolled to follow the player
+    private Pane world;
     private int currentLevel = 1;
-    private int totalDoorsCompleted = 0; // Track total across both levels
 
     private AnimationTimer timer;
     private boolean paused = false;
+    // Per-frame animations (player walk cycle, light overlay) driven by the game loop
+    private final FrameScheduler frameScheduler = new FrameScheduler();
 
-    private List<PuzzleDoor> doors = new ArrayList<>();
-    private GameEngine gameEngine = new GameEngine();
     // Visual mapping for puzzle doors so we can show/remove them on solve (store Group node)
     private java.util.Map<PuzzleDoor, javafx.scene.Node> doorVisualMap = new java.util.HashMap<>();
     // Layer that contains door visuals (positioned to map layout)
     private Pane doorsLayer;
-    // Prevent multiple dialogs / reentrancy while a puzzle is active
-    private boolean dialogOpen = false;
     
     // NEW: Exit barrier to block exit until all puzzles solved
     private javafx.scene.Node exitBarrier = null;
-    private boolean exitUnlocked = false;
-    private boolean exitMessageShown = false; // Prevent message spam
     
     // NEW: Marks system and database integration
-    private MarksManager marksManager;
-    private DatabaseManager databaseManager;
+    // Game rules (movement, doors, marks, exit, levels) run headless in here
+    private GameSimulation simulation;
+    private StackPane gameStack;
+    // All database work goes through here so the FX thread never blocks on JDBC
+    private PuzzleService puzzleService;
+    private int levelRequest = 0;  // Newest loadLevel call; older puzzle loads are ignored
+    // Prepares the next level while the current one is played
+    private LevelPrefetcher levelPrefetcher;
+    // Transition timing: from loadLevel to the new level's first frame
+    private long transitionStartNanos = 0;
+    private double transitionBuildMillis = 0;
+    private String transitionSource = "";
+    // Identifies this playthrough in the attempt log
+    private final String sessionId = java.util.UUID.randomUUID().toString();
     private Text marksText;  // HUD display for marks
     
     // NEW: Flickering light effect
@@ -60,6 +71,18 @@ public class GameScene {
     private static final double BUTTON_HEIGHT = Start.BUTTON_HEIGHT;
     private static final double GAP_PX = Start.GAP_PX;
     private static final Duration CINEMATIC = Start.CINEMATIC;
+    
+    // Player collision radius (the sprite is drawn slightly smaller)
+    static final double PLAYER_RADIUS = 20;
+    
+    // Fixed-timestep simulation, independent of the display refresh rate
+    private static final double SIM_STEP_SECONDS = 1.0 / 120;
+    private static final double MAX_FRAME_SECONDS = 0.25;
+    // Render rate cap, e.g. to save battery; 0 = render on every display frame.
+    // Override with -Dlightsout.maxFps=N
+    private static final int MAX_RENDER_FPS = Integer.getInteger("lightsout.maxFps", 0);
+    // Only show the loading screen if puzzles take longer than this
+    private static final double LOADING_SCREEN_DELAY_MS = 150;
 
     public GameScene(Stage stage, MediaPlayer musicPlayer,
                      double musicVolume, double soundVolume,
@@ -72,12 +95,13 @@ public class GameScene {
         this.soundOn = soundOn;
         
         // Initialize marks manager and database
-        this.marksManager = new MarksManager();
-        this.databaseManager = new DatabaseManager();
-        this.databaseManager.connect();
+        this.simulation = new GameSimulation(new SimulationEvents());
+        this.puzzleService = new PuzzleService(new DatabaseManager());
+        this.puzzleService.connect();  // Runs in the background
+        this.levelPrefetcher = new LevelPrefetcher(puzzleService, this::prepareLevel, this::warmLevel);
         
         System.out.println("=== Lights Out Game Started ===");
-        System.out.println("Marks System: Ready (0/" + marksManager.getTotalQuestions() + ")");
+        System.out.println("Marks System: Ready (0/" + simulation.getMarksManager().getTotalQuestions() + ")");
     }
     
     // Set the level before showing the game
@@ -90,166 +114,212 @@ public class GameScene {
     }
 
     private void loadLevel(int levelNum) {
-        // Reset game state for new level
-        exitUnlocked = false;
-        exitBarrier = null;
-        dialogOpen = false;
+        // Stop the previous level's loop and drop its animations
+        if (timer != null) {
+            timer.stop();
+        }
+        frameScheduler.clear();
         
-        Pane gameLayer = new Pane();
-        gameLayer.setPrefSize(800, 600);
-        gameLayer.setStyle("-fx-background-color: white;");
+        if (!hasLevel(levelNum)) {
+            Start.showStartMenu(stage, musicPlayer, musicVolume, soundVolume, musicOn, soundOn);
+            return;
+        }
+        
+        transitionStartNanos = System.nanoTime();
+        transitionSource = levelPrefetcher.isReady(levelNum) ? "prefetched"
+                         : LevelPrefetcher.ENABLED ? "loaded on demand" : "prefetch off";
+        
+        // Puzzles and layout are prepared off the FX thread (or already were, by
+        // the prefetcher); the scene is put together once they arrive
+        int request = ++levelRequest;
+        CompletableFuture<LevelPrefetcher.PreparedLevel> level = levelPrefetcher.take(levelNum);
+        level.thenAcceptAsync(prepared -> {
+            if (request == levelRequest) {
+                buildLevel(prepared);
+            }
+        }, PuzzleService.ON_FX);
+        
+        PauseTransition loadingDelay = new PauseTransition(Duration.millis(LOADING_SCREEN_DELAY_MS));
+        loadingDelay.setOnFinished(e -> {
+            if (!level.isDone() && request == levelRequest) {
+                showLoadingScreen(levelNum);
+            }
+        });
+        loadingDelay.play();
+    }
+    
+    /** Shown while a slow database is still answering; buildLevel replaces it */
+    private void showLoadingScreen(int levelNum) {
+        Text loadingText = new Text("Loading level " + levelNum + "...");
+        loadingText.setFill(Color.WHITE);
+        loadingText.setFont(Font.font("Consolas", 24));
+        StackPane loadingPane = new StackPane(loadingText);
+        loadingPane.setStyle("-fx-background-color: black;");
+        stage.setScene(new Scene(loadingPane, 800, 600));
+        System.out.println("⏳ Waiting for puzzles for level " + levelNum);
+    }
+
+    private static boolean hasLevel(int levelNum) {
+        return levelNum == 1 || levelNum == 2;
+    }
 
+    /**
+     * Builds the map, door placement and door visuals for a level. Runs on the
+     * level-prep thread, so it only creates nodes and must not touch fields.
+     */
+    private LevelPrefetcher.PreparedLevel prepareLevel(int levelNum, List<Puzzle> puzzles) {
+        long start = System.nanoTime();
+        
         // Load level map
+        GameMap levelMap;
         if (levelNum == 1) {
-            map = new Level1(45);  // Level 1 - 13x13 maze
-        } else if (levelNum == 2) {
-            map = new Level2(35);  // Level 2 - 17x17 larger maze with smaller tiles
+            levelMap = new Level1(45);  // Level 1 - 13x13 maze
         } else {
-            Start.showStartMenu(stage, musicPlayer, musicVolume, soundVolume, musicOn, soundOn);
-            return;
+            levelMap = new Level2(35);  // Level 2 - 17x17 larger maze with smaller tiles
         }
 
-        double mapWidth = map.getCols() * map.getTileSize();
-        double mapHeight = map.getRows() * map.getTileSize();
-        map.setLayoutX((800 - mapWidth) / 2);
-        map.setLayoutY((600 - mapHeight) / 2);
-        gameLayer.getChildren().add(map);
+        double mapWidth = levelMap.getCols() * levelMap.getTileSize();
+        double mapHeight = levelMap.getRows() * levelMap.getTileSize();
+        // Center maps that fit on screen; bigger maps scroll with the camera
+        levelMap.setLayoutX(mapWidth <= 800 ? (800 - mapWidth) / 2 : 0);
+        levelMap.setLayoutY(mapHeight <= 600 ? (600 - mapHeight) / 2 : 0);
 
-        // Player spawn point
-        double startX = 0, startY = 0;
-        int[][] layout = map.getLayout();
-        outer:
-        for (int r = 0; r < map.getRows(); r++) {
-            for (int c = 0; c < map.getCols(); c++) {
-                if (layout[r][c] == 0) {
-                    startX = map.getLayoutX() + c * map.getTileSize() + map.getTileSize() / 2.0;
-                    startY = map.getLayoutY() + r * map.getTileSize() + map.getTileSize() / 2.0;
-                    break outer;
-                }
-            }
-        }
+        List<PuzzleDoor> doors = createPuzzleDoors(levelMap, puzzles);
 
-        player = new Player(startX, startY, 20);
     // Create a dedicated layer for doors so they render above the map but below the player
-    // assign to field so other methods can access it
-    doorsLayer = new Pane();
-    // position doorsLayer at the same offset as the map so children can use local tile coords
-    doorsLayer.setLayoutX(map.getLayoutX());
-    doorsLayer.setLayoutY(map.getLayoutY());
-    gameLayer.getChildren().addAll(doorsLayer, player);
-
-    // Create puzzle doors after map is initialized
-    doors.clear();
-    doors.addAll(createPuzzleDoors());
+    Pane layer = new Pane();
+    // position the layer at the same offset as the map so children can use local tile coords
+    layer.setLayoutX(levelMap.getLayoutX());
+    layer.setLayoutY(levelMap.getLayoutY());
 
-    // Populate doorsLayer with visuals
-    doorVisualMap.clear();
+    // Populate the layer with visuals
+    java.util.Map<PuzzleDoor, javafx.scene.Node> visuals = new java.util.HashMap<>();
     for (PuzzleDoor door : doors) {
         Puzzle p = door.getPuzzle();
         int tr = p.getRow();
         int tc = p.getCol();
-        double x = tc * map.getTileSize();
-        double y = tr * map.getTileSize();
+        double x = tc * levelMap.getTileSize();
+        double y = tr * levelMap.getTileSize();
         double pad = 4;
         
         // Create attractive door rectangle with gradient and glow
         javafx.scene.shape.Rectangle rect = new javafx.scene.shape.Rectangle(
             x + pad, y + pad,
-            map.getTileSize() - pad*2, map.getTileSize() - pad*2);
+            levelMap.getTileSize() - pad*2, levelMap.getTileSize() - pad*2);
         
-        // Gradient fill for door
-        javafx.scene.paint.LinearGradient gradient = new javafx.scene.paint.LinearGradient(
-            0, 0, 1, 1, true, javafx.scene.paint.CycleMethod.NO_CYCLE,
-            new javafx.scene.paint.Stop(0, javafx.scene.paint.Color.DARKORANGE),
-            new javafx.scene.paint.Stop(1, javafx.scene.paint.Color.GOLD)
-        );
-        rect.setFill(gradient);
-        rect.setStroke(javafx.scene.paint.Color.DARKGOLDENROD);
+        // Gradient fill for door (shared paint)
+        rect.setFill(PaintRegistry.DOOR_FILL);
+        rect.setStroke(PaintRegistry.DOOR_STROKE);
         rect.setStrokeWidth(3);
         rect.setOpacity(0.95);
         rect.setArcWidth(10);
         rect.setArcHeight(10);
         
         // Add glow effect
-        javafx.scene.effect.DropShadow glow = new javafx.scene.effect.DropShadow();
-        glow.setColor(javafx.scene.paint.Color.GOLD);
-        glow.setRadius(15);
-        glow.setSpread(0.4);
-        rect.setEffect(glow);
+        rect.setEffect(PaintRegistry.DOOR_GLOW);
         
         // Enhanced label with icon
         javafx.scene.text.Text label = new javafx.scene.text.Text("🚪 DOOR");
         label.setFill(javafx.scene.paint.Color.WHITE);
         label.setStyle("-fx-font-weight: bold; -fx-font-size: 12px;");
-        label.setX(x + map.getTileSize() * 0.1);
-        label.setY(y + map.getTileSize() * 0.55);
+        label.setX(x + levelMap.getTileSize() * 0.1);
+        label.setY(y + levelMap.getTileSize() * 0.55);
         
         // Add drop shadow to label for readability
-        javafx.scene.effect.DropShadow labelShadow = new javafx.scene.effect.DropShadow();
-        labelShadow.setColor(javafx.scene.paint.Color.BLACK);
-        labelShadow.setRadius(3);
-        label.setEffect(labelShadow);
-        // Group them so we can remove both at once
-        javafx.scene.Group g = new javafx.scene.Group(rect, label);
-        doorsLayer.getChildren().add(g);
-        doorVisualMap.put(door, g);
-        System.out.println("Placed door visual at row=" + tr + " col=" + tc + " -> x=" + (map.getLayoutX()+x) + " y=" + (map.getLayoutY()+y));
+        label.setEffect(PaintRegistry.LABEL_SHADOW);
+        // Group them so we can remove both at once; the glow is rasterised once and kept as a bitmap
+        javafx.scene.Group g = PaintRegistry.cacheAsBitmap(new javafx.scene.Group(rect, label));
+        layer.getChildren().add(g);
+        visuals.put(door, g);
+        System.out.println("Placed door visual at row=" + tr + " col=" + tc + " -> x=" + (levelMap.getLayoutX()+x) + " y=" + (levelMap.getLayoutY()+y));
     }
     
         // Create EXIT BARRIER - blocks exit until all puzzles solved
-        // Reuse the layout array that was already defined
-        int exitRow = -1, exitCol = -1;
-        // Find exit tile (marked with 2)
-        outerExit:
-        for (int r = 0; r < map.getRows(); r++) {
-            for (int c = 0; c < map.getCols(); c++) {
-                if (layout[r][c] == 2) {
-                    exitRow = r;
-                    exitCol = c;
-                    break outerExit;
-                }
-            }
-        }
+        javafx.scene.Node barrier = null;
+        int[] exit = levelMap.getGrid().find(TileGrid.EXIT);
         
-        if (exitRow != -1 && exitCol != -1) {
-            double exitX = exitCol * map.getTileSize();
-            double exitY = exitRow * map.getTileSize();
+        if (exit != null) {
+            int exitRow = exit[0];
+            int exitCol = exit[1];
+            double exitX = exitCol * levelMap.getTileSize();
+            double exitY = exitRow * levelMap.getTileSize();
             double pad = 2;
             
             // Create locked barrier with chains/lock visual
             javafx.scene.shape.Rectangle barrierRect = new javafx.scene.shape.Rectangle(
                 exitX + pad, exitY + pad,
-                map.getTileSize() - pad*2, map.getTileSize() - pad*2);
+                levelMap.getTileSize() - pad*2, levelMap.getTileSize() - pad*2);
             
             // Red gradient for locked barrier
-            javafx.scene.paint.LinearGradient lockGradient = new javafx.scene.paint.LinearGradient(
-                0, 0, 1, 1, true, javafx.scene.paint.CycleMethod.NO_CYCLE,
-                new javafx.scene.paint.Stop(0, javafx.scene.paint.Color.DARKRED),
-                new javafx.scene.paint.Stop(1, javafx.scene.paint.Color.RED)
-            );
-            barrierRect.setFill(lockGradient);
-            barrierRect.setStroke(javafx.scene.paint.Color.DARKRED);
+            barrierRect.setFill(PaintRegistry.BARRIER_FILL);
+            barrierRect.setStroke(PaintRegistry.BARRIER_STROKE);
             barrierRect.setStrokeWidth(4);
             barrierRect.setOpacity(0.9);
             
             // Add lock icon
             javafx.scene.text.Text lockIcon = new javafx.scene.text.Text("🔒");
             lockIcon.setStyle("-fx-font-size: 24px;");
-            lockIcon.setX(exitX + map.getTileSize() * 0.3);
-            lockIcon.setY(exitY + map.getTileSize() * 0.6);
+            lockIcon.setX(exitX + levelMap.getTileSize() * 0.3);
+            lockIcon.setY(exitY + levelMap.getTileSize() * 0.6);
             
             javafx.scene.text.Text lockLabel = new javafx.scene.text.Text("LOCKED");
             lockLabel.setFill(javafx.scene.paint.Color.WHITE);
             lockLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 11px;");
-            lockLabel.setX(exitX + map.getTileSize() * 0.15);
-            lockLabel.setY(exitY + map.getTileSize() * 0.8);
+            lockLabel.setX(exitX + levelMap.getTileSize() * 0.15);
+            lockLabel.setY(exitY + levelMap.getTileSize() * 0.8);
             
-            exitBarrier = new javafx.scene.Group(barrierRect, lockIcon, lockLabel);
-            doorsLayer.getChildren().add(exitBarrier);
-            exitUnlocked = false;
+            barrier = PaintRegistry.cacheAsBitmap(new javafx.scene.Group(barrierRect, lockIcon, lockLabel));
+            layer.getChildren().add(barrier);
             System.out.println("🔒 Exit barrier created at row=" + exitRow + " col=" + exitCol);
         }
 
+        return new LevelPrefetcher.PreparedLevel(levelNum, levelMap, doors, layer, visuals, barrier,
+                                                 System.nanoTime() - start);
+    }
+
+    /** Rasterise the map chunks the camera will show at the spawn point (FX thread) */
+    private void warmLevel(LevelPrefetcher.PreparedLevel level) {
+        GameMap levelMap = level.map;
+        int[] spawn = levelMap.getGrid().find(TileGrid.PATH);
+        if (spawn == null) {
+            return;
+        }
+        double tile = levelMap.getTileSize();
+        double cameraX = cameraOffset(levelMap.getCols() * tile, 800,
+                                      levelMap.getLayoutX() + spawn[1] * tile + tile / 2);
+        double cameraY = cameraOffset(levelMap.getRows() * tile, 600,
+                                      levelMap.getLayoutY() + spawn[0] * tile + tile / 2);
+        levelMap.prerender(-cameraX - levelMap.getLayoutX(), -cameraY - levelMap.getLayoutY(), 800, 600);
+    }
+
+    private void buildLevel(LevelPrefetcher.PreparedLevel level) {
+        long buildStart = System.nanoTime();
+        int levelNum = level.level;
+        
+        Pane gameLayer = new Pane();
+        gameLayer.setPrefSize(800, 600);
+        gameLayer.setStyle("-fx-background-color: white;");
+
+        map = level.map;
+        world = new Pane();
+        world.getChildren().add(map);
+        gameLayer.getChildren().add(world);
+
+        // Hand the prepared doors to the simulation
+        simulation.startLevel(levelNum, map.getGrid(), level.doors, PLAYER_RADIUS);
+
+        // Player spawn point
+        player = new Player(map.getLayoutX() + simulation.getPlayerX(),
+                            map.getLayoutY() + simulation.getPlayerY(), PLAYER_RADIUS);
+        frameScheduler.register(player::animate);
+        doorsLayer = level.doorsLayer;
+        world.getChildren().addAll(doorsLayer, player);
+        updateCamera();
+
+        doorVisualMap.clear();
+        doorVisualMap.putAll(level.doorVisuals);
+        exitBarrier = level.exitBarrier;
+
         // HUD
         Text levelText = new Text("Level " + levelNum);
         levelText.setFill(Color.BLACK);
@@ -267,6 +337,7 @@ public class GameScene {
         StackPane.setMargin(marksText, new Insets(10));
         
         // Bind marks display to MarksManager properties (for when it's shown)
+        MarksManager marksManager = simulation.getMarksManager();
         marksManager.marksProperty().addListener((obs, oldVal, newVal) -> updateMarksDisplay());
         marksManager.questionsAnsweredProperty().addListener((obs, oldVal, newVal) -> updateMarksDisplay());
         updateMarksDisplay();
@@ -374,9 +445,16 @@ public class GameScene {
         // NEW: Create canvas for light effect overlay
         javafx.scene.canvas.Canvas lightCanvas = new javafx.scene.canvas.Canvas(800, 600);
         lightCanvas.setMouseTransparent(true); // Don't block mouse events
-        lightEffect = new FlickeringLight(player.getTranslateX(), player.getTranslateY(), 50);  // 50px radius = 100x100 cutout
+        lightEffect = new FlickeringLight(player.getTranslateX() + world.getTranslateX(),
+                                          player.getTranslateY() + world.getTranslateY(), 60);  // 60px player light radius
+        // Torches light up the darkness too; baked once per level
+        lightEffect.setMapOrigin(map.getLayoutX() + world.getTranslateX(), map.getLayoutY() + world.getTranslateY());
+        lightEffect.setLevelLights(map, false, 800, 600);
+        
+        javafx.scene.canvas.GraphicsContext lightGc = lightCanvas.getGraphicsContext2D();
+        frameScheduler.register(now -> lightEffect.draw(lightGc, 800, 600));
         
-        StackPane gameStack = new StackPane(gameLayer, lightCanvas, levelText, marksText, pauseBtn, pauseMenu);
+        gameStack = new StackPane(gameLayer, lightCanvas, levelText, marksText, pauseBtn, pauseMenu);
         Scene finalScene = new Scene(gameStack, 800, 600);
 
         pauseBtn.setOnAction(e -> togglePause(pauseMenu));
@@ -388,7 +466,7 @@ public class GameScene {
                 timer.stop();
             }
             // Reset marks and progress
-            marksManager.reset();
+            simulation.resetMarks();
             System.out.println("Game restarted - progress reset");
             loadLevel(currentLevel);
         });
@@ -397,485 +475,76 @@ public class GameScene {
             showExitScoreDialog();
         });
 
-        final boolean[] playerFrozen = {false};  // Flag to freeze player at door
-        final boolean[] waitingForInput = {false};  // Flag to wait for user input after puzzle
-        final boolean[] up = {false};
-        final boolean[] down = {false};
-        final boolean[] left = {false};
-        final boolean[] right = {false};
-        
+        // Movement keys go to the simulation, which decides whether they count
         finalScene.setOnKeyPressed(e -> {
-            // Don't process keys if player is frozen or waiting for input
-            if (playerFrozen[0] || waitingForInput[0]) {
-                // If waiting for input after puzzle, any movement key unfreezes the player
-                if (waitingForInput[0]) {
-                    if (e.getCode() == KeyCode.W || e.getCode() == KeyCode.UP ||
-                        e.getCode() == KeyCode.S || e.getCode() == KeyCode.DOWN ||
-                        e.getCode() == KeyCode.A || e.getCode() == KeyCode.LEFT ||
-                        e.getCode() == KeyCode.D || e.getCode() == KeyCode.RIGHT) {
-                        waitingForInput[0] = false;
-                        playerFrozen[0] = false;
-                        player.unfreeze();
-                        System.out.println("Player unfrozen - movement key pressed: " + e.getCode());
-                        // Fall through to set key states below instead of returning
-                    } else {
-                        return; // Other keys don't unfreeze
-                    }
-                } else {
-                    return; // Ignore all key inputs when frozen
-                }
+            GameSimulation.Direction direction = toDirection(e.getCode());
+            if (direction != null) {
+                simulation.press(direction);
             }
-            
-            // Track key states for smooth movement only when not frozen
-            if (e.getCode() == KeyCode.W || e.getCode() == KeyCode.UP) up[0] = true;
-            if (e.getCode() == KeyCode.S || e.getCode() == KeyCode.DOWN) down[0] = true;
-            if (e.getCode() == KeyCode.A || e.getCode() == KeyCode.LEFT) left[0] = true;
-            if (e.getCode() == KeyCode.D || e.getCode() == KeyCode.RIGHT) right[0] = true;
         });
         finalScene.setOnKeyReleased(e -> {
-            if (e.getCode() == KeyCode.W || e.getCode() == KeyCode.UP) up[0] = false;
-            if (e.getCode() == KeyCode.S || e.getCode() == KeyCode.DOWN) down[0] = false;
-            if (e.getCode() == KeyCode.A || e.getCode() == KeyCode.LEFT) left[0] = false;
-            if (e.getCode() == KeyCode.D || e.getCode() == KeyCode.RIGHT) right[0] = false;
-            
-            // Stop animation when all keys are released
-            if (!up[0] && !down[0] && !left[0] && !right[0]) {
-                player.stopMoving();
+            GameSimulation.Direction direction = toDirection(e.getCode());
+            if (direction != null) {
+                simulation.release(direction);
             }
         });
 
-        // Game loop
-        final javafx.scene.canvas.Canvas finalLightCanvas = lightCanvas;
+        // Game loop: movement and collision run in fixed steps, rendering samples them
         timer = new AnimationTimer() {
-            final double speed = 2.8;  // Smoother, slightly slower speed
+            long lastTime = 0;
+            long lastRenderTime = 0;
+            double accumulator = 0;
 
             @Override
-            public void handle(long now) {
-                if (paused) return;
+            public void start() {
+                // Don't try to catch up on the time the loop was stopped
+                lastTime = 0;
+                accumulator = 0;
+                super.start();
+            }
 
-                double dx = 0, dy = 0;
-                
-                // Only process movement if player is not frozen
-                if (!playerFrozen[0]) {
-                    if (up[0]) dy -= speed;
-                    if (down[0]) dy += speed;
-                    if (left[0]) dx -= speed;
-                    if (right[0]) dx += speed;
-                    
-                    player.move(dx, dy, map, exitUnlocked);
-                    
-                    // Update light position to follow player
-                    lightEffect.updatePosition(player.getTranslateX(), player.getTranslateY());
-                    
-                    // Explicitly stop player if no keys are pressed
-                    if (!up[0] && !down[0] && !left[0] && !right[0]) {
-                        player.stopMoving();
-                    }
-                } else {
-                    // Ensure player stays frozen and shows idle frame
-                    player.stopMoving();
+            @Override
+            public void handle(long now) {
+                if (paused) {
+                    lastTime = 0;
+                    return;
                 }
-                
-                // Draw the light effect on the canvas
-                javafx.scene.canvas.GraphicsContext gc = finalLightCanvas.getGraphicsContext2D();
-                lightEffect.draw(gc, 800, 600);
 
-                // Check puzzle doors (only if no dialog is currently open)
-                if (!dialogOpen) {
-                    for (PuzzleDoor door : doors) {
-                        if (!door.isSolved() && map.isOnTile(player.getCenterX(), player.getCenterY(),
-                                door.getPuzzle().getRow(), door.getPuzzle().getCol())) {
-                            dialogOpen = true;
-                            playerFrozen[0] = true;  // Freeze player at door
-                            player.freeze();  // Freeze animation and movement
-                            
-                            // Clear all key states to prevent automatic movement after puzzle
-                            up[0] = false;
-                            down[0] = false;
-                            left[0] = false;
-                            right[0] = false;
-                            
-                            System.out.println("🚪 Player at door (" + door.getPuzzle().getRow() + "," + door.getPuzzle().getCol() + ") - " + door.getPuzzle().getSubject());
-                            
-                            // Show puzzle dialog - game loop continues running
-                            door.trigger(stage, (Boolean solved) -> {
-                                System.out.println("GameScene: puzzle callback for " + door.getPuzzle().getId() + " solved=" + solved);
-                                // If solved, remove visual door from doorsLayer and continue
-                                if (solved) {
-                                    // Add mark for correct answer and track total progress
-                                    marksManager.addMark();
-                                    totalDoorsCompleted++;
-                                    
-                                    System.out.println("🎯 Total doors completed: " + totalDoorsCompleted + "/10");
-                                    
-                                    javafx.application.Platform.runLater(() -> {
-                                        javafx.scene.Node n = doorVisualMap.remove(door);
-                                        if (n != null && doorsLayer != null) {
-                                            doorsLayer.getChildren().remove(n);
-                                        }
-                                    });
-                                    gameEngine.puzzleSolved(
-                                            door.getPuzzle().getSubject(),
-                                            door.isSolved(),
-                                            door.getPuzzle().getTimeLimit() * 1000
-                                    );
-                                    
-                                    // Check if current level is complete (5 questions answered in this level)
-                                    if (marksManager.isGameComplete()) {
-                                        // Current level complete
-                                        if (currentLevel == 1 && totalDoorsCompleted < 10) {
-                                            // Level 1 complete, auto-progress to Level 2
-                                            System.out.println("🎉 Level 1 Complete! Moving to Level 2...");
-                                            
-                                            waitingForInput[0] = true;
-                                            dialogOpen = false;
-                                            
-                                            // Show Level 2 notification
-                                            javafx.application.Platform.runLater(() -> {
-                                                javafx.scene.control.Alert levelAlert = new javafx.scene.control.Alert(
-                                                    javafx.scene.control.Alert.AlertType.INFORMATION);
-                                                levelAlert.setTitle("Level 1 Complete!");
-                                                levelAlert.setHeaderText("🎉 Great Job! 🎉");
-                                                levelAlert.setContentText(
-                                                    "You've completed Level 1!\n\n" +
-                                                    "Get ready for Level 2...\n\n" +
-                                                    "Progress: " + totalDoorsCompleted + "/10 doors");
-                                                
-                                                // Apply black background with white text styling
-                                                javafx.scene.control.DialogPane dialogPane = levelAlert.getDialogPane();
-                                                dialogPane.setStyle(
-                                                    "-fx-background-color: black;" +
-                                                    "-fx-font-family: 'Comic Sans MS';" +
-                                                    "-fx-font-size: 16px;"
-                                                );
-                                                
-                                                // Style header
-                                                dialogPane.lookup(".header-panel").setStyle(
-                                                    "-fx-background-color: black;"
-                                                );
-                                                javafx.scene.control.Label headerLabel = (javafx.scene.control.Label) dialogPane.lookup(".header-panel .label");
-                                                if (headerLabel != null) {
-                                                    headerLabel.setStyle(
-                                                        "-fx-text-fill: white;" +
-                                                        "-fx-font-family: 'Comic Sans MS';" +
-                                                        "-fx-font-size: 20px;" +
-                                                        "-fx-font-weight: bold;"
-                                                    );
-                                                }
-                                                
-                                                // Style content
-                                                dialogPane.lookup(".content").setStyle(
-                                                    "-fx-background-color: black;"
-                                                );
-                                                javafx.scene.control.Label contentLabel = (javafx.scene.control.Label) dialogPane.lookup(".content .label");
-                                                if (contentLabel != null) {
-                                                    contentLabel.setStyle(
-                                                        "-fx-text-fill: white;" +
-                                                        "-fx-font-family: 'Comic Sans MS';" +
-                                                        "-fx-font-size: 16px;"
-                                                    );
-                                                }
-                                                
-                                                // Style buttons
-                                                for (javafx.scene.control.ButtonType bt : dialogPane.getButtonTypes()) {
-                                                    javafx.scene.control.Button button = (javafx.scene.control.Button) dialogPane.lookupButton(bt);
-                                                    if (button != null) {
-                                                        button.setStyle(
-                                                            "-fx-background-color: white;" +
-                                                            "-fx-text-fill: black;" +
-                                                            "-fx-font-family: 'Comic Sans MS';" +
-                                                            "-fx-font-size: 14px;" +
-                                                            "-fx-border-color: black;" +
-                                                            "-fx-border-width: 2px;"
-                                                        );
-                                                    }
-                                                }
-                                                
-                                                levelAlert.showAndWait();
-                                                
-                                                // Stop current timer and load Level 2
-                                                if (timer != null) {
-                                                    timer.stop();
-                                                }
-                                                
-                                                // Reset marks manager for Level 2
-                                                marksManager = new MarksManager();
-                                                
-                                                // Load Level 2
-                                                currentLevel = 2;
-                                                loadLevel(2);
-                                            });
-                                        } else if (totalDoorsCompleted >= 10) {
-                                            // All 10 doors complete - UNLOCK EXIT and show final marks
-                                            System.out.println("🎉 All 10 questions answered! Unlocking exit...");
-                                            
-                                            // Remove exit barrier
-                                            if (exitBarrier != null && doorsLayer != null && !exitUnlocked) {
-                                                doorsLayer.getChildren().remove(exitBarrier);
-                                                exitBarrier = null;
-                                                exitUnlocked = true;
-                                                System.out.println("🔓 Exit barrier removed - EXIT UNLOCKED");
-                                            }
-                                            
-                                            waitingForInput[0] = true;
-                                            dialogOpen = false;
-                                            
-                                            // Show notification with marks
-                                            javafx.application.Platform.runLater(() -> {
-                                                javafx.scene.control.Alert exitAlert = new javafx.scene.control.Alert(
-                                                    javafx.scene.control.Alert.AlertType.INFORMATION);
-                                                exitAlert.setTitle("All Puzzles Complete!");
-                                                exitAlert.setHeaderText("🎉 Congratulations! 🔓");
-                                                exitAlert.setContentText(
-                                                    "You've answered all questions!\n\n" +
-                                                    "The EXIT has been UNLOCKED!\n\n" +
-                                                    "Make your way to the exit to finish the game.");
-                                                
-                                                // Apply black background with white text styling
-                                                javafx.scene.control.DialogPane dialogPane = exitAlert.getDialogPane();
-                                                dialogPane.setStyle(
-                                                    "-fx-background-color: black;" +
-                                                    "-fx-font-family: 'Comic Sans MS';" +
-                                                    "-fx-font-size: 16px;"
-                                                );
-                                                
-                                                // Style header
-                                                dialogPane.lookup(".header-panel").setStyle(
-                                                    "-fx-background-color: black;"
-                                                );
-                                                javafx.scene.control.Label headerLabel = (javafx.scene.control.Label) dialogPane.lookup(".header-panel .label");
-                                                if (headerLabel != null) {
-                                                    headerLabel.setStyle(
-                                                        "-fx-text-fill: white;" +
-                                                        "-fx-font-family: 'Comic Sans MS';" +
-                                                        "-fx-font-size: 20px;" +
-                                                        "-fx-font-weight: bold;"
-                                                    );
-                                                }
-                                                
-                                                // Style content
-                                                dialogPane.lookup(".content").setStyle(
-                                                    "-fx-background-color: black;"
-                                                );
-                                                javafx.scene.control.Label contentLabel = (javafx.scene.control.Label) dialogPane.lookup(".content .label");
-                                                if (contentLabel != null) {
-                                                    contentLabel.setStyle(
-                                                        "-fx-text-fill: white;" +
-                                                        "-fx-font-family: 'Comic Sans MS';" +
-                                                        "-fx-font-size: 16px;"
-                                                    );
-                                                }
-                                                
-                                                // Style button
-                                                javafx.scene.control.Button okButton = (javafx.scene.control.Button) dialogPane.lookupButton(javafx.scene.control.ButtonType.OK);
-                                                if (okButton != null) {
-                                                    okButton.setStyle(
-                                                        "-fx-background-color: transparent;" +
-                                                        "-fx-text-fill: white;" +
-                                                        "-fx-font-family: 'Comic Sans MS';" +
-                                                        "-fx-font-size: 18px;" +
-                                                        "-fx-font-weight: bold;" +
-                                                        "-fx-border-color: white;" +
-                                                        "-fx-border-width: 2;" +
-                                                        "-fx-background-radius: 0;" +
-                                                        "-fx-border-radius: 0;" +
-                                                        "-fx-padding: 10 30 10 30;"
-                                                    );
-                                                    okButton.setOnMouseEntered(e -> okButton.setStyle(
-                                                        "-fx-background-color: white;" +
-                                                        "-fx-text-fill: black;" +
-                                                        "-fx-font-family: 'Comic Sans MS';" +
-                                                        "-fx-font-size: 18px;" +
-                                                        "-fx-font-weight: bold;" +
-                                                        "-fx-border-color: white;" +
-                                                        "-fx-border-width: 2;" +
-                                                        "-fx-background-radius: 0;" +
-                                                        "-fx-border-radius: 0;" +
-                                                        "-fx-padding: 10 30 10 30;"
-                                                    ));
-                                                    okButton.setOnMouseExited(e -> okButton.setStyle(
-                                                        "-fx-background-color: transparent;" +
-                                                        "-fx-text-fill: white;" +
-                                                        "-fx-font-family: 'Comic Sans MS';" +
-                                                        "-fx-font-size: 18px;" +
-                                                        "-fx-font-weight: bold;" +
-                                                        "-fx-border-color: white;" +
-                                                        "-fx-border-width: 2;" +
-                                                        "-fx-background-radius: 0;" +
-                                                        "-fx-border-radius: 0;" +
-                                                        "-fx-padding: 10 30 10 30;"
-                                                    ));
-                                                }
-                                                
-                                                exitAlert.showAndWait();
-                                            });
-                                        }
-                                    } else {
-                                        // Wait for user input to continue
-                                        waitingForInput[0] = true;
-                                        dialogOpen = false;
-                                        System.out.println("Puzzle solved - waiting for movement input to continue");
-                                    }
-                                } else {
-                                    // Reduce mark for wrong answer (only once per door)
-                                    if (!door.isMarksDeducted()) {
-                                        marksManager.reduceMark();
-                                        door.setMarksDeducted(true);
-                                        System.out.println("GameScene: puzzle failed — Score: " + marksManager.getMarks() + "/" + marksManager.getTotalQuestions());
-                                    } else {
-                                        System.out.println("GameScene: puzzle failed but marks already deducted for this door");
-                                    }
-                                    
-                                    // Wait for user input to continue (don't show final score yet)
-                                    waitingForInput[0] = true;
-                                    dialogOpen = false;
-                                    System.out.println("Puzzle failed - waiting for movement input to continue");
-                                }
-                            });
-                            // only handle one dialog per frame
-                            break;
-                        }
-                    }
+                if (transitionStartNanos != 0) {
+                    System.out.printf("⏱ Level %d transition: %.1f ms to first frame (%s, FX build %.1f ms, prepare %.1f ms)%n",
+                                      levelNum, (System.nanoTime() - transitionStartNanos) / 1e6,
+                                      transitionSource, transitionBuildMillis, level.prepareNanos / 1e6);
+                    transitionStartNanos = 0;
                 }
 
-                // Check if player is near exit tile (to show message when touching locked exit)
-                if (!exitUnlocked) {
-                    // Find exit tile and check distance
-                    int[][] layout = map.getLayout();
-                    for (int r = 0; r < map.getRows(); r++) {
-                        for (int c = 0; c < map.getCols(); c++) {
-                            if (layout[r][c] == 2) { // Exit tile
-                                double tileSize = map.getTileSize();
-                                double exitCenterX = map.getLayoutX() + c * tileSize + tileSize / 2.0;
-                                double exitCenterY = map.getLayoutY() + r * tileSize + tileSize / 2.0;
-                                
-                                double distX = player.getCenterX() - exitCenterX;
-                                double distY = player.getCenterY() - exitCenterY;
-                                double distance = Math.sqrt(distX * distX + distY * distY);
-                                
-                                // If player is very close to exit (touching it), show message once
-                                if (distance < tileSize * 0.8 && !exitMessageShown) {
-                                    exitMessageShown = true;
-                                    System.out.println("EXIT BLOCKED - Quiz is not over");
-                                    
-                                    // Show non-intrusive text message without taking focus
-                                    javafx.application.Platform.runLater(() -> {
-                                        javafx.scene.text.Text messageText = new javafx.scene.text.Text("Quiz is not over!");
-                                        messageText.setFont(javafx.scene.text.Font.font("Arial", javafx.scene.text.FontWeight.BOLD, 28));
-                                        messageText.setFill(javafx.scene.paint.Color.RED);
-                                        messageText.setStroke(javafx.scene.paint.Color.WHITE);
-                                        messageText.setStrokeWidth(2);
-                                        
-                                        // Center it on screen
-                                        messageText.setLayoutX(400 - 100);
-                                        messageText.setLayoutY(100);
-                                        
-                                        gameStack.getChildren().add(messageText);
-                                        
-                                        // Auto-remove after 2 seconds
-                                        javafx.animation.PauseTransition pause = 
-                                            new javafx.animation.PauseTransition(javafx.util.Duration.seconds(2));
-                                        pause.setOnFinished(e -> gameStack.getChildren().remove(messageText));
-                                        pause.play();
-                                    });
-                                }
-                                
-                                // Reset message flag when player moves away
-                                if (distance > tileSize * 1.5) {
-                                    exitMessageShown = false;
-                                }
-                                break;
-                            }
-                        }
-                    }
+                double frameSeconds = lastTime == 0 ? 0 : (now - lastTime) / 1e9;
+                lastTime = now;
+                // Clamp long hitches so we don't run hundreds of catch-up steps
+                accumulator += Math.min(frameSeconds, MAX_FRAME_SECONDS);
+
+                while (accumulator >= SIM_STEP_SECONDS) {
+                    simulation.step(SIM_STEP_SECONDS);
+                    accumulator -= SIM_STEP_SECONDS;
                 }
                 
-                // Check exit - only allow if all questions are answered
-                if (map.isOnExit(player.getCenterX(), player.getCenterY())) {
-                    if (marksManager.isGameComplete()) {
-                        if (currentLevel == 1 && totalDoorsCompleted < 10) {
-                            // Level 1 complete, transition to Level 2
-                            System.out.println("EXIT REACHED - Moving to Level 2");
-                            timer.stop();
-                            
-                            // Show Level 2 transition dialog
-                            javafx.application.Platform.runLater(() -> {
-                                javafx.scene.control.Alert levelAlert = new javafx.scene.control.Alert(
-                                    javafx.scene.control.Alert.AlertType.INFORMATION);
-                                levelAlert.setTitle("Level 1 Complete!");
-                                levelAlert.setHeaderText("🎉 Great Job! 🎉");
-                                levelAlert.setContentText(
-                                    "You've completed Level 1!\n\n" +
-                                    "Get ready for Level 2...\n\n" +
-                                    "Progress: " + totalDoorsCompleted + "/10 doors");
-                                
-                                // Apply styling
-                                javafx.scene.control.DialogPane dialogPane = levelAlert.getDialogPane();
-                                dialogPane.setStyle(
-                                    "-fx-background-color: black;" +
-                                    "-fx-font-family: 'Comic Sans MS';" +
-                                    "-fx-font-size: 16px;"
-                                );
-                                
-                                dialogPane.lookup(".header-panel").setStyle("-fx-background-color: black;");
-                                javafx.scene.control.Label headerLabel = (javafx.scene.control.Label) dialogPane.lookup(".header-panel .label");
-                                if (headerLabel != null) {
-                                    headerLabel.setStyle(
-                                        "-fx-text-fill: white;" +
-                                        "-fx-font-family: 'Comic Sans MS';" +
-                                        "-fx-font-size: 20px;" +
-                                        "-fx-font-weight: bold;"
-                                    );
-                                }
-                                
-                                dialogPane.lookup(".content").setStyle("-fx-background-color: black;");
-                                javafx.scene.control.Label contentLabel = (javafx.scene.control.Label) dialogPane.lookup(".content .label");
-                                if (contentLabel != null) {
-                                    contentLabel.setStyle(
-                                        "-fx-text-fill: white;" +
-                                        "-fx-font-family: 'Comic Sans MS';" +
-                                        "-fx-font-size: 16px;"
-                                    );
-                                }
-                                
-                                for (javafx.scene.control.ButtonType bt : dialogPane.getButtonTypes()) {
-                                    javafx.scene.control.Button button = (javafx.scene.control.Button) dialogPane.lookupButton(bt);
-                                    if (button != null) {
-                                        button.setStyle(
-                                            "-fx-background-color: white;" +
-                                            "-fx-text-fill: black;" +
-                                            "-fx-font-family: 'Comic Sans MS';" +
-                                            "-fx-font-size: 14px;" +
-                                            "-fx-border-color: black;" +
-                                            "-fx-border-width: 2px;"
-                                        );
-                                    }
-                                }
-                                
-                                levelAlert.showAndWait();
-                                
-                                // Reset marks manager for Level 2
-                                marksManager = new MarksManager();
-                                
-                                // Load Level 2
-                                currentLevel = 2;
-                                loadLevel(2);
-                            });
-                        } else if (totalDoorsCompleted >= 10) {
-                            // All 10 doors complete - show final marks
-                            System.out.println("EXIT UNLOCKED - Showing final score");
-                            stop();
-                            timer.stop();
-                            
-                            // Show marks display at exit
-                            if (marksText != null) {
-                                marksText.setVisible(true);
-                            }
-                            
-                            // Show final score screen
-                            showFinalScoreScreen();
-                        }
-                    }
+                // Game rules: doors and exit (results arrive through the listener)
+                simulation.update();
+                
+                // Rendering only samples the simulation, optionally at a capped rate
+                if (MAX_RENDER_FPS <= 0 || now - lastRenderTime >= 1e9 / MAX_RENDER_FPS) {
+                    lastRenderTime = now;
+                    syncPlayer();
+                    player.interpolate(accumulator / SIM_STEP_SECONDS);
+                    
+                    // Scroll the camera, then move the light to the player's screen position
+                    updateCamera();
+                    lightEffect.setMapOrigin(map.getLayoutX() + world.getTranslateX(),
+                                             map.getLayoutY() + world.getTranslateY());
+                    lightEffect.updatePosition(player.getTranslateX() + world.getTranslateX(),
+                                               player.getTranslateY() + world.getTranslateY());
+                    
+                    // Run registered animations (player sprite, light effect on the canvas)
+                    frameScheduler.tick(now);
                 }
             }
         };
@@ -898,6 +567,332 @@ public class GameScene {
         fadeInGame.setFromValue(0.0);
         fadeInGame.setToValue(1.0);
         fadeInGame.play();
+        
+        transitionBuildMillis = (System.nanoTime() - buildStart) / 1e6;
+        // Start on the next level while this one is played
+        if (hasLevel(levelNum + 1)) {
+            levelPrefetcher.prefetch(levelNum + 1);
+        }
+    }
+
+    /**
+     * Scroll the world so the player stays on screen (only for maps bigger than
+     * the window) and let the map show just the chunks inside the viewport.
+     */
+    private void updateCamera() {
+        double mapWidth = map.getCols() * map.getTileSize();
+        double mapHeight = map.getRows() * map.getTileSize();
+        
+        double cameraX = cameraOffset(mapWidth, 800, player.getTranslateX());
+        double cameraY = cameraOffset(mapHeight, 600, player.getTranslateY());
+        world.setTranslateX(cameraX);
+        world.setTranslateY(cameraY);
+        
+        map.updateViewport(-cameraX - map.getLayoutX(), -cameraY - map.getLayoutY(), 800, 600);
+    }
+
+    /** Camera translation along one axis that centers the player, clamped to the map */
+    private static double cameraOffset(double mapSize, double viewSize, double playerPos) {
+        if (mapSize <= viewSize) {
+            return 0;
+        }
+        return Math.round(Math.max(viewSize - mapSize, Math.min(0, viewSize / 2 - playerPos)));
+    }
+
+    /** Map a key to a movement direction (WASD or arrows), or null */
+    private static GameSimulation.Direction toDirection(KeyCode code) {
+        if (code == KeyCode.W || code == KeyCode.UP) return GameSimulation.Direction.UP;
+        if (code == KeyCode.S || code == KeyCode.DOWN) return GameSimulation.Direction.DOWN;
+        if (code == KeyCode.A || code == KeyCode.LEFT) return GameSimulation.Direction.LEFT;
+        if (code == KeyCode.D || code == KeyCode.RIGHT) return GameSimulation.Direction.RIGHT;
+        return null;
+    }
+
+    /** Copy the simulated player position (map-local) onto the sprite */
+    private void syncPlayer() {
+        player.setSimulatedPosition(
+                map.getLayoutX() + simulation.getPrevPlayerX(),
+                map.getLayoutY() + simulation.getPrevPlayerY(),
+                map.getLayoutX() + simulation.getPlayerX(),
+                map.getLayoutY() + simulation.getPlayerY(),
+                simulation.isPlayerMoving());
+    }
+
+    /**
+     * Turns simulation events into UI: puzzle dialogs, door visuals, the exit
+     * barrier, level transitions and the final score.
+     */
+    private class SimulationEvents implements GameSimulation.Listener {
+
+        @Override
+        public void onDoorReached(PuzzleDoor door) {
+            player.freeze();  // Freeze animation and movement
+            System.out.println("🚪 Player at door (" + door.getPuzzle().getRow() + "," + door.getPuzzle().getCol() + ") - " + door.getPuzzle().getSubject());
+            
+            // Show puzzle dialog - game loop continues running
+            door.trigger(stage, (Boolean solved, Long responseMillis) -> {
+                System.out.println("GameScene: puzzle callback for " + door.getPuzzle().getId() + " solved=" + solved);
+                simulation.finishPuzzle(door, solved, responseMillis);
+            });
+        }
+
+        @Override
+        public void onPuzzleAttempted(PuzzleDoor door, boolean solved, long timeSpentMillis, int level) {
+            // Queued only; written in batches on a background thread
+            AttemptRecorder.getInstance().record(
+                new AttemptRecorder.Attempt(sessionId, door.getPuzzle(), solved, timeSpentMillis, level));
+        }
+
+        @Override
+        public void onPuzzleSolved(PuzzleDoor door) {
+            // Remove visual door from doorsLayer
+            javafx.application.Platform.runLater(() -> {
+                javafx.scene.Node n = doorVisualMap.remove(door);
+                if (n != null && doorsLayer != null) {
+                    doorsLayer.getChildren().remove(n);
+                }
+            });
+            System.out.println("Puzzle solved - waiting for movement input to continue");
+        }
+
+        @Override
+        public void onPuzzleFailed(PuzzleDoor door) {
+            System.out.println("Puzzle failed - waiting for movement input to continue");
+        }
+
+        @Override
+        public void onPlayerUnfrozen() {
+            player.unfreeze();
+            System.out.println("Player unfrozen - movement key pressed");
+        }
+
+        @Override
+        public void onLevelComplete(int level) {
+            System.out.println("EXIT REACHED - Moving to Level " + (level + 1));
+            if (timer != null) {
+                timer.stop();
+            }
+            javafx.application.Platform.runLater(() -> {
+                showLevelCompleteDialog();
+                
+                // Fresh marks for the next level, then load it
+                simulation.advanceLevel();
+                currentLevel = simulation.getCurrentLevel();
+                loadLevel(currentLevel);
+            });
+        }
+
+        @Override
+        public void onExitUnlocked() {
+            // Remove exit barrier
+            if (exitBarrier != null && doorsLayer != null) {
+                doorsLayer.getChildren().remove(exitBarrier);
+                exitBarrier = null;
+                System.out.println("🔓 Exit barrier removed - EXIT UNLOCKED");
+            }
+            // The open exit glows in the dark
+            if (lightEffect != null && map != null) {
+                lightEffect.setLevelLights(map, true, 800, 600);
+            }
+            // Show notification with marks
+            javafx.application.Platform.runLater(GameScene.this::showExitUnlockedDialog);
+        }
+
+        @Override
+        public void onExitBlocked() {
+            System.out.println("EXIT BLOCKED - Quiz is not over");
+            
+            // Show non-intrusive text message without taking focus
+            StackPane stack = gameStack;
+            javafx.application.Platform.runLater(() -> {
+                javafx.scene.text.Text messageText = new javafx.scene.text.Text("Quiz is not over!");
+                messageText.setFont(javafx.scene.text.Font.font("Arial", javafx.scene.text.FontWeight.BOLD, 28));
+                messageText.setFill(javafx.scene.paint.Color.RED);
+                messageText.setStroke(javafx.scene.paint.Color.WHITE);
+                messageText.setStrokeWidth(2);
+                
+                // Center it on screen
+                messageText.setLayoutX(400 - 100);
+                messageText.setLayoutY(100);
+                
+                stack.getChildren().add(messageText);
+                
+                // Auto-remove after 2 seconds
+                javafx.animation.PauseTransition pause = 
+                    new javafx.animation.PauseTransition(javafx.util.Duration.seconds(2));
+                pause.setOnFinished(e -> stack.getChildren().remove(messageText));
+                pause.play();
+            });
+        }
+
+        @Override
+        public void onGameComplete() {
+            // All 10 doors complete - show final marks
+            System.out.println("EXIT UNLOCKED - Showing final score");
+            timer.stop();
+            
+            // Show marks display at exit
+            if (marksText != null) {
+                marksText.setVisible(true);
+            }
+            
+            // Show final score screen
+            showFinalScoreScreen();
+        }
+    }
+
+    /** "Level complete" notification shown before moving to the next level */
+    private void showLevelCompleteDialog() {
+        javafx.scene.control.Alert levelAlert = new javafx.scene.control.Alert(
+            javafx.scene.control.Alert.AlertType.INFORMATION);
+        levelAlert.setTitle("Level 1 Complete!");
+        levelAlert.setHeaderText("🎉 Great Job! 🎉");
+        levelAlert.setContentText(
+            "You've completed Level 1!\n\n" +
+            "Get ready for Level 2...\n\n" +
+            "Progress: " + simulation.getTotalDoorsCompleted() + "/10 doors");
+        
+        // Apply black background with white text styling
+        javafx.scene.control.DialogPane dialogPane = levelAlert.getDialogPane();
+        dialogPane.setStyle(
+            "-fx-background-color: black;" +
+            "-fx-font-family: 'Comic Sans MS';" +
+            "-fx-font-size: 16px;"
+        );
+        
+        // Style header
+        dialogPane.lookup(".header-panel").setStyle(
+            "-fx-background-color: black;"
+        );
+        javafx.scene.control.Label headerLabel = (javafx.scene.control.Label) dialogPane.lookup(".header-panel .label");
+        if (headerLabel != null) {
+            headerLabel.setStyle(
+                "-fx-text-fill: white;" +
+                "-fx-font-family: 'Comic Sans MS';" +
+                "-fx-font-size: 20px;" +
+                "-fx-font-weight: bold;"
+            );
+        }
+        
+        // Style content
+        dialogPane.lookup(".content").setStyle(
+            "-fx-background-color: black;"
+        );
+        javafx.scene.control.Label contentLabel = (javafx.scene.control.Label) dialogPane.lookup(".content .label");
+        if (contentLabel != null) {
+            contentLabel.setStyle(
+                "-fx-text-fill: white;" +
+                "-fx-font-family: 'Comic Sans MS';" +
+                "-fx-font-size: 16px;"
+            );
+        }
+        
+        // Style buttons
+        for (javafx.scene.control.ButtonType bt : dialogPane.getButtonTypes()) {
+            javafx.scene.control.Button button = (javafx.scene.control.Button) dialogPane.lookupButton(bt);
+            if (button != null) {
+                button.setStyle(
+                    "-fx-background-color: white;" +
+                    "-fx-text-fill: black;" +
+                    "-fx-font-family: 'Comic Sans MS';" +
+                    "-fx-font-size: 14px;" +
+                    "-fx-border-color: black;" +
+                    "-fx-border-width: 2px;"
+                );
+            }
+        }
+        
+        levelAlert.showAndWait();
+    }
+
+    /** Notification shown once all puzzles are solved and the exit opens */
+    private void showExitUnlockedDialog() {
+        javafx.scene.control.Alert exitAlert = new javafx.scene.control.Alert(
+            javafx.scene.control.Alert.AlertType.INFORMATION);
+        exitAlert.setTitle("All Puzzles Complete!");
+        exitAlert.setHeaderText("🎉 Congratulations! 🔓");
+        exitAlert.setContentText(
+            "You've answered all questions!\n\n" +
+            "The EXIT has been UNLOCKED!\n\n" +
+            "Make your way to the exit to finish the game.");
+        
+        // Apply black background with white text styling
+        javafx.scene.control.DialogPane dialogPane = exitAlert.getDialogPane();
+        dialogPane.setStyle(
+            "-fx-background-color: black;" +
+            "-fx-font-family: 'Comic Sans MS';" +
+            "-fx-font-size: 16px;"
+        );
+        
+        // Style header
+        dialogPane.lookup(".header-panel").setStyle(
+            "-fx-background-color: black;"
+        );
+        javafx.scene.control.Label headerLabel = (javafx.scene.control.Label) dialogPane.lookup(".header-panel .label");
+        if (headerLabel != null) {
+            headerLabel.setStyle(
+                "-fx-text-fill: white;" +
+                "-fx-font-family: 'Comic Sans MS';" +
+                "-fx-font-size: 20px;" +
+                "-fx-font-weight: bold;"
+            );
+        }
+        
+        // Style content
+        dialogPane.lookup(".content").setStyle(
+            "-fx-background-color: black;"
+        );
+        javafx.scene.control.Label contentLabel = (javafx.scene.control.Label) dialogPane.lookup(".content .label");
+        if (contentLabel != null) {
+            contentLabel.setStyle(
+                "-fx-text-fill: white;" +
+                "-fx-font-family: 'Comic Sans MS';" +
+                "-fx-font-size: 16px;"
+            );
+        }
+        
+        // Style button
+        javafx.scene.control.Button okButton = (javafx.scene.control.Button) dialogPane.lookupButton(javafx.scene.control.ButtonType.OK);
+        if (okButton != null) {
+            okButton.setStyle(
+                "-fx-background-color: transparent;" +
+                "-fx-text-fill: white;" +
+                "-fx-font-family: 'Comic Sans MS';" +
+                "-fx-font-size: 18px;" +
+                "-fx-font-weight: bold;" +
+                "-fx-border-color: white;" +
+                "-fx-border-width: 2;" +
+                "-fx-background-radius: 0;" +
+                "-fx-border-radius: 0;" +
+                "-fx-padding: 10 30 10 30;"
+            );
+            okButton.setOnMouseEntered(e -> okButton.setStyle(
+                "-fx-background-color: white;" +
+                "-fx-text-fill: black;" +
+                "-fx-font-family: 'Comic Sans MS';" +
+                "-fx-font-size: 18px;" +
+                "-fx-font-weight: bold;" +
+                "-fx-border-color: white;" +
+                "-fx-border-width: 2;" +
+                "-fx-background-radius: 0;" +
+                "-fx-border-radius: 0;" +
+                "-fx-padding: 10 30 10 30;"
+            ));
+            okButton.setOnMouseExited(e -> okButton.setStyle(
+                "-fx-background-color: transparent;" +
+                "-fx-text-fill: white;" +
+                "-fx-font-family: 'Comic Sans MS';" +
+                "-fx-font-size: 18px;" +
+                "-fx-font-weight: bold;" +
+                "-fx-border-color: white;" +
+                "-fx-border-width: 2;" +
+                "-fx-background-radius: 0;" +
+                "-fx-border-radius: 0;" +
+                "-fx-padding: 10 30 10 30;"
+            ));
+        }
+        
+        exitAlert.showAndWait();
     }
 
     private void togglePause(VBox pauseMenu) {
@@ -915,18 +910,15 @@ public class GameScene {
     }
 
     // Load puzzle doors from database (5 questions total)
-    private List<PuzzleDoor> createPuzzleDoors() {
+    private List<PuzzleDoor> createPuzzleDoors(GameMap levelMap, List<Puzzle> puzzles) {
         List<PuzzleDoor> list = new ArrayList<>();
         
-        // Load puzzles from database
-        List<Puzzle> puzzles = databaseManager.loadPuzzlesForGame();
-        
         if (puzzles.size() < 5) {
             System.out.println("⚠ Warning: Only " + puzzles.size() + " puzzles loaded (expected 5)");
         }
         
         // Get all valid spawn positions for doors (empty tiles away from player spawn)
-        List<int[]> validPositions = getValidDoorPositions();
+        List<int[]> validPositions = getValidDoorPositions(levelMap);
         
         if (validPositions.size() < puzzles.size()) {
             System.out.println("⚠ Warning: Not enough valid positions for all doors!");
@@ -944,18 +936,7 @@ public class GameScene {
             int newCol = pos[1];
             
             // Create a new Puzzle with the randomized position
-            Puzzle randomizedPuzzle = new Puzzle(
-                originalPuzzle.getId(),
-                originalPuzzle.getSubject(),
-                originalPuzzle.getType(),
-                originalPuzzle.getQuestion(),
-                originalPuzzle.getOptions(),
-                originalPuzzle.getAnswerIndex(),
-                originalPuzzle.getContentText(),
-                originalPuzzle.getTimeLimit(),
-                newRow,
-                newCol
-            );
+            Puzzle randomizedPuzzle = originalPuzzle.atPosition(newRow, newCol);
             
             list.add(new PuzzleDoor(randomizedPuzzle));
             System.out.println("  📋 Door at (" + newRow + "," + newCol + "): " + 
@@ -972,9 +953,9 @@ public class GameScene {
      * - Must be at least 3 tiles away from player spawn point
      * - Must not be the exit tile
      */
-    private List<int[]> getValidDoorPositions() {
+    private List<int[]> getValidDoorPositions(GameMap levelMap) {
         List<int[]> validPositions = new ArrayList<>();
-        int[][] layout = map.getLayout();
+        int[][] layout = levelMap.getLayout();
         
         // Find player spawn tile (first empty tile)
         int spawnRow = -1, spawnCol = -1;
@@ -1015,9 +996,9 @@ public class GameScene {
      */
     private void updateMarksDisplay() {
         if (marksText != null) {
-            int marks = marksManager.getMarks();
-            int answered = marksManager.getQuestionsAnswered();
-            int total = marksManager.getTotalQuestions();
+            int marks = simulation.getMarksManager().getMarks();
+            int answered = simulation.getMarksManager().getQuestionsAnswered();
+            int total = simulation.getMarksManager().getTotalQuestions();
             
             String displayText = String.format("Score: %d/5 | Questions: %d/5", marks, answered);
             marksText.setText(displayText);
@@ -1040,8 +1021,8 @@ public class GameScene {
         timer.stop();
         
         // FIX: Safely disconnect database with null check
-        if (databaseManager != null) {
-            databaseManager.disconnect();
+        if (puzzleService != null) {
+            puzzleService.disconnect();
         }
         
         // Create final score display with black background and white text
@@ -1055,13 +1036,13 @@ public class GameScene {
         titleText.setStyle("-fx-font-weight: bold;");
         
         // Calculate final score out of 10 (total doors completed)
-        Text scoreText = new Text(String.format("Final Score: %d / 10", totalDoorsCompleted));
+        Text scoreText = new Text(String.format("Final Score: %d / 10", simulation.getTotalDoorsCompleted()));
         scoreText.setFont(Font.font("Comic Sans MS", 28));
         scoreText.setFill(Color.WHITE);
         
         // Calculate grade based on 10 questions
         String grade;
-        double percentage = (totalDoorsCompleted / 10.0) * 100;
+        double percentage = (simulation.getTotalDoorsCompleted() / 10.0) * 100;
         if (percentage >= 90) grade = "A+";
         else if (percentage >= 80) grade = "A";
         else if (percentage >= 70) grade = "B";
@@ -1075,7 +1056,7 @@ public class GameScene {
         gradeText.setFill(Color.WHITE);
         
         Text detailsText = new Text(String.format("✓ Doors Completed: %d | Percentage: %.0f%%",
-                                    totalDoorsCompleted,
+                                    simulation.getTotalDoorsCompleted(),
                                     percentage));
         detailsText.setFont(Font.font("Comic Sans MS", 18));
         detailsText.setFill(Color.WHITE);
@@ -1107,7 +1088,7 @@ public class GameScene {
             "-fx-border-radius: 0;"
         ));
         returnBtn.setOnAction(e -> {
-            marksManager.reset();
+            simulation.getMarksManager().reset();
             Start.showStartMenu(stage, musicPlayer, musicVolume, soundVolume, musicOn, soundOn);
         });
         
@@ -1127,7 +1108,7 @@ public class GameScene {
         fadeIn.play();
         
         System.out.println("\n" + "=".repeat(50));
-        System.out.println("FINAL SCORE: " + marksManager);
+        System.out.println("FINAL SCORE: " + simulation.getMarksManager());
         System.out.println("=".repeat(50));
     }
     
@@ -1151,7 +1132,7 @@ public class GameScene {
         exitAlert.setHeaderText("🎯 Current Score");
         
         // Calculate current grade based on total progress
-        double percentage = (totalDoorsCompleted / 10.0) * 100;
+        double percentage = (simulation.getTotalDoorsCompleted() / 10.0) * 100;
         String grade;
         if (percentage >= 90) grade = "A+";
         else if (percentage >= 80) grade = "A";
@@ -1168,8 +1149,8 @@ public class GameScene {
             "Level: %d\n" +
             "Percentage: %.0f%%\n" +
             "Grade: %s",
-            totalDoorsCompleted,
-            totalDoorsCompleted,
+            simulation.getTotalDoorsCompleted(),
+            simulation.getTotalDoorsCompleted(),
             currentLevel,
             percentage,
             grade
@@ -1309,7 +1290,7 @@ public class GameScene {
             
             Start.showStartMenu(stage, musicPlayer, musicVolume, soundVolume, musicOn, soundOn);
             
-            System.out.println("Exited game - Score: " + marksManager.getMarks() + "/" + marksManager.getTotalQuestions());
+            System.out.println("Exited game - Score: " + simulation.getMarksManager().getMarks() + "/" + simulation.getMarksManager().getTotalQuestions());
         } else {
             // User clicked Cancel or X button - resume the game
             paused = false;
@@ -1322,7 +1303,7 @@ public class GameScene {
                 lightEffect.resume();
             }
             
-            System.out.println("Resumed game - Score: " + marksManager.getMarks() + "/" + marksManager.getTotalQuestions());
+            System.out.println("Resumed game - Score: " + simulation.getMarksManager().getMarks() + "/" + simulation.getMarksManager().getTotalQuestions());
         }
     }
     
@@ -1333,8 +1314,11 @@ public class GameScene {
         if (timer != null) {
             timer.stop();
         }
-        if (databaseManager != null) {
-            databaseManager.disconnect();
+        frameScheduler.clear();
+        levelRequest++;  // A level still loading must not replace the next screen
+        levelPrefetcher.cancel();
+        if (puzzleService != null) {
+            puzzleService.disconnect();
         }
         System.out.println("✓ GameScene resources cleaned up");
     }
@@ -0,0 +1,310 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headless game rules: player movement and collision, door triggering,
+ * marks, exit unlocking and level progression. Takes input and tick calls
+ * and reports what happened through a Listener, so GameScene only has to
+ * render and show dialogs. Has no JavaFX stage/scene dependencies and can
+ * be driven from a plain loop (e.g. simulated playthroughs on CI).
+ *
+ * Coordinates are map-local pixels (0,0 = top-left corner of the maze).
+ */
+public class GameSimulation {
+
+    public enum Direction { UP, DOWN, LEFT, RIGHT }
+
+    /** Game events; all methods are optional */
+    public interface Listener {
+        /** Player stepped on an unsolved door; report the outcome with finishPuzzle */
+        default void onDoorReached(PuzzleDoor door) { }
+        default void onPuzzleSolved(PuzzleDoor door) { }
+        default void onPuzzleFailed(PuzzleDoor door) { }
+        /** Every finished puzzle, right or wrong, with the time the player took */
+        default void onPuzzleAttempted(PuzzleDoor door, boolean solved, long timeSpentMillis, int level) { }
+        /** Player pressed a movement key after a puzzle and may move again */
+        default void onPlayerUnfrozen() { }
+        /** All of this level's puzzles are solved; the next level should be started */
+        default void onLevelComplete(int level) { }
+        /** All puzzles of the game are solved and the exit opens */
+        default void onExitUnlocked() { }
+        /** Player touched the exit while it is still locked */
+        default void onExitBlocked() { }
+        /** Player walked through the unlocked exit */
+        default void onGameComplete() { }
+    }
+
+    public static final int DOORS_TO_WIN = 10;
+
+    private static final double PLAYER_SPEED = 168;  // Pixels per second
+    private static final double COLLISION_SQUISH = 0.5; // Smaller for proper centering in corridors
+
+    private final Listener listener;
+    private final GameEngine gameEngine = new GameEngine();
+    private MarksManager marksManager = new MarksManager();
+    private int currentLevel = 1;
+    private int totalDoorsCompleted = 0; // Track total across both levels
+
+    // Per-level state
+    private TileGrid grid;
+    private final List<PuzzleDoor> doors = new ArrayList<>();
+    private TileIndex<PuzzleDoor> doorIndex;
+    private int exitRow = -1, exitCol = -1;
+    private boolean exitUnlocked = false;
+    private boolean exitMessageShown = false; // Prevent message spam
+    private boolean finished = false;         // Level or game ended, waiting for the caller
+
+    // Player
+    private double playerRadius;
+    private double playerX, playerY;
+    private double prevX, prevY;
+    private boolean playerMoving = false;
+    private boolean playerFrozen = false;     // Frozen at a door
+    private boolean waitingForInput = false;  // Wait for a movement key after a puzzle
+    private boolean dialogOpen = false;       // A puzzle is in progress
+    private final boolean[] held = new boolean[Direction.values().length];
+
+    public GameSimulation(Listener listener) {
+        this.listener = listener != null ? listener : new Listener() { };
+    }
+
+    /**
+     * Start a level on the given grid. The player spawns on the first path
+     * tile; doors are indexed by their puzzle's tile position.
+     */
+    public void startLevel(int level, TileGrid grid, List<PuzzleDoor> levelDoors, double playerRadius) {
+        this.currentLevel = level;
+        this.grid = grid;
+        this.playerRadius = playerRadius;
+
+        doors.clear();
+        doors.addAll(levelDoors);
+        doorIndex = new TileIndex<>(grid.getRows(), grid.getCols());
+        for (PuzzleDoor door : doors) {
+            doorIndex.put(door.getPuzzle().getRow(), door.getPuzzle().getCol(), door);
+        }
+
+        int[] exit = grid.find(TileGrid.EXIT);
+        exitRow = exit != null ? exit[0] : -1;
+        exitCol = exit != null ? exit[1] : -1;
+
+        int[] spawn = grid.find(TileGrid.PATH);
+        double tileSize = grid.getTileSize();
+        playerX = prevX = spawn != null ? spawn[1] * tileSize + tileSize / 2.0 : 0;
+        playerY = prevY = spawn != null ? spawn[0] * tileSize + tileSize / 2.0 : 0;
+
+        exitUnlocked = false;
+        exitMessageShown = false;
+        finished = false;
+        dialogOpen = false;
+        playerFrozen = false;
+        waitingForInput = false;
+        playerMoving = false;
+        java.util.Arrays.fill(held, false);
+    }
+
+    /** Move on to the next level with a fresh set of marks */
+    public void advanceLevel() {
+        marksManager = new MarksManager();
+        currentLevel++;
+    }
+
+    /** Restart the current level's scoring */
+    public void resetMarks() {
+        marksManager.reset();
+    }
+
+    // ---- Input ----
+
+    public void press(Direction direction) {
+        // Don't process keys if player is frozen or waiting for input
+        if (playerFrozen || waitingForInput) {
+            if (!waitingForInput) {
+                return; // Ignore all key inputs when frozen at a door
+            }
+            // If waiting for input after puzzle, any movement key unfreezes the player
+            waitingForInput = false;
+            playerFrozen = false;
+            listener.onPlayerUnfrozen();
+        }
+        held[direction.ordinal()] = true;
+    }
+
+    public void release(Direction direction) {
+        held[direction.ordinal()] = false;
+        if (!anyHeld()) {
+            playerMoving = false;
+        }
+    }
+
+    private boolean anyHeld() {
+        for (boolean h : held) {
+            if (h) return true;
+        }
+        return false;
+    }
+
+    // ---- Simulation ----
+
+    /** Advance movement and collision by one fixed step of the given length */
+    public void step(double seconds) {
+        prevX = playerX;
+        prevY = playerY;
+        if (finished) {
+            return;
+        }
+
+        double dx = 0, dy = 0;
+        // Only process movement if player is not frozen
+        if (!playerFrozen) {
+            double step = PLAYER_SPEED * seconds;
+            if (held[Direction.UP.ordinal()]) dy -= step;
+            if (held[Direction.DOWN.ordinal()]) dy += step;
+            if (held[Direction.LEFT.ordinal()]) dx -= step;
+            if (held[Direction.RIGHT.ordinal()]) dx += step;
+        }
+        movePlayer(dx, dy);
+    }
+
+    /** Player movement with wall collision and smooth centering */
+    private void movePlayer(double dx, double dy) {
+        // Only process if there's input
+        if (dx == 0 && dy == 0) {
+            playerMoving = false;
+            return;
+        }
+
+        double oldX = playerX;
+        double oldY = playerY;
+        double effectiveRadius = playerRadius * COLLISION_SQUISH;
+        double nextX = playerX + dx;
+        double nextY = playerY + dy;
+
+        // Try full diagonal movement first
+        if (!grid.collidesWithCircle(nextX, nextY, effectiveRadius, exitUnlocked)) {
+            playerX = nextX;
+            playerY = nextY;
+        } else {
+            // Diagonal blocked - try X only, then Y only
+            if (dx != 0 && !grid.collidesWithCircle(nextX, playerY, effectiveRadius, exitUnlocked)) {
+                playerX = nextX;
+            }
+            if (dy != 0 && !grid.collidesWithCircle(playerX, nextY, effectiveRadius, exitUnlocked)) {
+                playerY = nextY;
+            }
+        }
+
+        // Animate only while the position actually changes
+        playerMoving = (playerX != oldX || playerY != oldY);
+    }
+
+    /** Check doors and the exit against the player's current tile */
+    public void update() {
+        if (finished) {
+            return;
+        }
+
+        // Check puzzle doors (only if no dialog is currently open)
+        if (!dialogOpen) {
+            PuzzleDoor door = doorIndex.get(grid.tileRow(playerY), grid.tileCol(playerX));
+            if (door != null && !door.isSolved()) {
+                dialogOpen = true;
+                playerFrozen = true;  // Freeze player at door
+                playerMoving = false;
+                // Clear all key states to prevent automatic movement after puzzle
+                java.util.Arrays.fill(held, false);
+                listener.onDoorReached(door);
+            }
+        }
+
+        // Check if player is near exit tile (to show message when touching locked exit)
+        if (!exitUnlocked && exitRow != -1) {
+            double tileSize = grid.getTileSize();
+            double distX = playerX - (exitCol * tileSize + tileSize / 2.0);
+            double distY = playerY - (exitRow * tileSize + tileSize / 2.0);
+            double distance = Math.sqrt(distX * distX + distY * distY);
+
+            // If player is very close to exit (touching it), report it once
+            if (distance < tileSize * 0.8 && !exitMessageShown) {
+                exitMessageShown = true;
+                listener.onExitBlocked();
+            }
+            // Reset message flag when player moves away
+            if (distance > tileSize * 1.5) {
+                exitMessageShown = false;
+            }
+        }
+
+        // Check exit - only allow if all questions are answered
+        if (grid.isOnExit(playerX, playerY) && marksManager.isGameComplete()) {
+            if (currentLevel == 1 && totalDoorsCompleted < DOORS_TO_WIN) {
+                finished = true;
+                listener.onLevelComplete(currentLevel);
+            } else if (totalDoorsCompleted >= DOORS_TO_WIN) {
+                finished = true;
+                listener.onGameComplete();
+            }
+        }
+    }
+
+    /** Report the outcome of the puzzle started by onDoorReached */
+    public void finishPuzzle(PuzzleDoor door, boolean solved, long timeSpentMillis) {
+        if (solved) {
+            // Add mark for correct answer and track total progress
+            marksManager.addMark();
+            totalDoorsCompleted++;
+            System.out.println("🎯 Total doors completed: " + totalDoorsCompleted + "/" + DOORS_TO_WIN);
+
+            doorIndex.remove(door.getPuzzle().getRow(), door.getPuzzle().getCol());
+            gameEngine.puzzleSolved(door.getPuzzle().getSubject(), true, timeSpentMillis);
+            listener.onPuzzleSolved(door);
+        } else {
+            // Reduce mark for wrong answer (only once per door)
+            if (!door.isMarksDeducted()) {
+                marksManager.reduceMark();
+                door.setMarksDeducted(true);
+                System.out.println("GameSimulation: puzzle failed — Score: " + marksManager.getMarks() + "/" + marksManager.getTotalQuestions());
+            } else {
+                System.out.println("GameSimulation: puzzle failed but marks already deducted for this door");
+            }
+            listener.onPuzzleFailed(door);
+        }
+        listener.onPuzzleAttempted(door, solved, timeSpentMillis, currentLevel);
+
+        // Wait for a movement key before the player can continue
+        waitingForInput = true;
+        dialogOpen = false;
+
+        // Check if current level is complete (5 questions answered in this level)
+        if (solved && marksManager.isGameComplete()) {
+            if (currentLevel == 1 && totalDoorsCompleted < DOORS_TO_WIN) {
+                System.out.println("🎉 Level 1 Complete! Moving to Level 2...");
+                finished = true;
+                listener.onLevelComplete(currentLevel);
+            } else if (totalDoorsCompleted >= DOORS_TO_WIN && !exitUnlocked) {
+                System.out.println("🎉 All " + DOORS_TO_WIN + " questions answered! Unlocking exit...");
+                exitUnlocked = true;
+                listener.onExitUnlocked();
+            }
+        }
+    }
+
+    // ---- State ----
+
+    public int getCurrentLevel() { return currentLevel; }
+    public int getTotalDoorsCompleted() { return totalDoorsCompleted; }
+    public MarksManager getMarksManager() { return marksManager; }
+    public List<PuzzleDoor> getDoors() { return doors; }
+    public boolean isExitUnlocked() { return exitUnlocked; }
+    public int getExitRow() { return exitRow; }
+    public int getExitCol() { return exitCol; }
+    public boolean isFinished() { return finished; }
+
+    public double getPlayerX() { return playerX; }
+    public double getPlayerY() { return playerY; }
+    /** Player position at the start of the last step (for render interpolation) */
+    public double getPrevPlayerX() { return prevX; }
+    public double getPrevPlayerY() { return prevY; }
+    public boolean isPlayerMoving() { return playerMoving; }
+    public boolean isPlayerFrozen() { return playerFrozen; }
+}
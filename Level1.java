@@ -1,20 +1,6 @@
 public class Level1 extends GameMap {
 
-    public static final int[][] MAZE_LAYOUT = {
-        {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1},
-        {1, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 1},
-        {1, 0, 1, 0, 1, 0, 1, 1, 1, 1, 1, 0, 1},
-        {1, 0, 1, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1},
-        {1, 0, 1, 0, 1, 1, 1, 0, 1, 0, 1, 1, 1},
-        {1, 0, 0, 0, 0, 0, 1, 0, 0, 0, 1, 0, 2},
-        {1, 1, 1, 1, 1, 0, 1, 0, 1, 1, 1, 0, 1},
-        {1, 0, 0, 0, 1, 0, 1, 0, 0, 0, 0, 0, 1},
-        {1, 0, 1, 0, 1, 0, 1, 1, 1, 1, 1, 0, 1},
-        {1, 0, 1, 0, 1, 0, 0, 0, 0, 0, 1, 0, 1},
-        {1, 0, 1, 0, 1, 1, 1, 1, 1, 0, 1, 0, 1},
-        {1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1},
-        {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1},
-    };
+    public static final int[][] MAZE_LAYOUT = MazeLayouts.LEVEL_1;
 
     public Level1(int tileSize) {
         super(MAZE_LAYOUT, tileSize);
@@ -0,0 +1,122 @@
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads and prepares a level in the background.
+ *
+ * GameScene asks for level N+1 as soon as level N starts: its puzzles are
+ * loaded through PuzzleService, then the map, door placement and door
+ * visuals are built on a "level-prep" thread (the nodes are not attached
+ * to a scene yet, so that is allowed), and finally the chunks around the
+ * spawn point are rasterised on the FX thread. When the player reaches
+ * the exit, take() hands over the ready-made level.
+ *
+ * Prefetching can be turned off with -Dlightsout.prefetch=false to compare
+ * transition times.
+ */
+public class LevelPrefetcher {
+
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("lightsout.prefetch", "true"));
+
+    /** Everything a level needs before it is put on screen */
+    public static final class PreparedLevel {
+        final int level;
+        final GameMap map;
+        final List<PuzzleDoor> doors;
+        final javafx.scene.layout.Pane doorsLayer;
+        final Map<PuzzleDoor, javafx.scene.Node> doorVisuals;
+        final javafx.scene.Node exitBarrier;  // null if the map has no exit
+        final long prepareNanos;
+
+        PreparedLevel(int level, GameMap map, List<PuzzleDoor> doors,
+                      javafx.scene.layout.Pane doorsLayer, Map<PuzzleDoor, javafx.scene.Node> doorVisuals,
+                      javafx.scene.Node exitBarrier, long prepareNanos) {
+            this.level = level;
+            this.map = map;
+            this.doors = doors;
+            this.doorsLayer = doorsLayer;
+            this.doorVisuals = doorVisuals;
+            this.exitBarrier = exitBarrier;
+            this.prepareNanos = prepareNanos;
+        }
+    }
+
+    /** Builds a level's map and doors from its puzzles; must not touch the live scene */
+    public interface Preparer {
+        PreparedLevel prepare(int level, List<Puzzle> puzzles);
+    }
+
+    /** Rasterises whatever must be drawn on the FX thread (e.g. the first map chunks) */
+    public interface Warmer {
+        void warm(PreparedLevel level);
+    }
+
+    // Node building is kept off both the FX thread and the puzzle-io thread
+    private static final ExecutorService PREP = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "level-prep");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final PuzzleService puzzleService;
+    private final Preparer preparer;
+    private final Warmer warmer;
+
+    private int pendingLevel = -1;
+    private CompletableFuture<PreparedLevel> pending;
+
+    public LevelPrefetcher(PuzzleService puzzleService, Preparer preparer, Warmer warmer) {
+        this.puzzleService = puzzleService;
+        this.preparer = preparer;
+        this.warmer = warmer;
+    }
+
+    /** Starts preparing a level in the background (FX thread) */
+    public void prefetch(int level) {
+        if (!ENABLED || level == pendingLevel) {
+            return;
+        }
+        pendingLevel = level;
+        pending = load(level).thenApplyAsync(prepared -> {
+            warmer.warm(prepared);
+            return prepared;
+        }, PuzzleService.ON_FX);
+        System.out.println("📥 Prefetching level " + level);
+    }
+
+    /**
+     * The prepared level: the prefetched one if there is one for this level,
+     * otherwise a fresh load. A prefetch for another level is kept.
+     */
+    public CompletableFuture<PreparedLevel> take(int level) {
+        if (pending != null && pendingLevel == level) {
+            CompletableFuture<PreparedLevel> prefetched = pending;
+            pending = null;
+            pendingLevel = -1;
+            return prefetched.exceptionallyCompose(e -> {
+                System.err.println("⚠ Prefetch of level " + level + " failed, loading it again: " + e.getMessage());
+                return load(level);
+            });
+        }
+        return load(level);
+    }
+
+    /** True if take(level) would return a prefetched level that is already done */
+    public boolean isReady(int level) {
+        return pending != null && pendingLevel == level && pending.isDone() && !pending.isCompletedExceptionally();
+    }
+
+    /** Drops any prefetched level, e.g. when the game is left */
+    public void cancel() {
+        pending = null;
+        pendingLevel = -1;
+    }
+
+    private CompletableFuture<PreparedLevel> load(int level) {
+        return puzzleService.loadPuzzlesForGame(level)
+            .thenApplyAsync(puzzles -> preparer.prepare(level, puzzles), PREP);
+    }
+}
@@ -0,0 +1,335 @@
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reduced-resolution lightmap for the darkness overlay.
+ *
+ * Light is kept as an intensity (0 = dark, 1 = fully lit) per SCALE x SCALE
+ * block of pixels. Static lights (torches, the unlocked exit) are baked and
+ * blurred per square chunk of cells, lazily as chunks come into view, and
+ * kept in an LRU cache like GameMap's tile chunks, so memory stays flat
+ * however large the map is. Each frame the visible part of the baked
+ * chunks is copied, the player's light is stamped on
+ * top and the result is uploaded as one small image, which drawImage
+ * upsamples (with smoothing) to the full overlay. The cells stay aligned
+ * with the map: the image is drawn shifted by the part of the camera
+ * offset that is smaller than a cell, so baked light does not jitter
+ * while the camera scrolls. The per-frame cost
+ * depends on the screen size and the player light only, not on how many
+ * static lights there are.
+ */
+public class LightMap {
+
+    static final int SCALE = 4;           // screen pixels per light cell
+    private static final int BLUR_PASSES = 2;  // box blur passes over the static lights
+    private static final int CHUNK = 64;       // static light chunk size, in cells
+    private static final int PAD = BLUR_PASSES; // each 3-tap pass reaches one cell further
+    private static final float[] DARK_CHUNK = new float[0];  // no static light reaches it
+
+    private final int width, height;      // screen size in cells, plus one for the sub-cell shift
+    private final float[] frame;          // light for the current frame, screen cells
+    private final int[] pixels;           // overlay ARGB, screen cells
+    private WritableImage image;          // created on first render (FX thread)
+    private final double darkness;        // overlay alpha where there is no light
+
+    // Static lights in map-local cells: x, y, radius, intensity per light
+    private float[] staticLights = new float[64];
+    private int staticLightCount = 0;
+    private int staticWidth, staticHeight;
+    private int staticVersion = 0;
+
+    // Baked chunks, LRU; sized to hold two screens' worth
+    private final int maxCachedChunks;
+    private final Map<Long, float[]> chunkCache;
+    // Reused for every bake: the padded chunk and the blur's other half
+    private final float[] bakeBuffer = new float[(CHUNK + 2 * PAD) * (CHUNK + 2 * PAD)];
+    private final float[] blurScratch = new float[bakeBuffer.length];
+
+    // Chunks under the current window, re-resolved only when it moves by a chunk
+    private final float[][] windowChunks;
+    private final int windowChunkCols;
+    private int windowChunkRow = Integer.MIN_VALUE, windowChunkCol, windowVersion = -1;
+
+    // Player light kernel, rebuilt when the radius changes
+    private float[] kernel;
+    private int kernelRadius;
+    private double kernelLightRadius = -1;
+
+    public LightMap(double screenWidth, double screenHeight, double darkness) {
+        width = (int) Math.ceil(screenWidth / SCALE) + 1;
+        height = (int) Math.ceil(screenHeight / SCALE) + 1;
+        frame = new float[width * height];
+        pixels = new int[width * height];
+        this.darkness = darkness;
+
+        windowChunkCols = width / CHUNK + 2;
+        int windowChunkRows = height / CHUNK + 2;
+        windowChunks = new float[windowChunkRows * windowChunkCols][];
+        maxCachedChunks = 2 * windowChunks.length;
+        chunkCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, float[]> eldest) {
+                return size() > maxCachedChunks;
+            }
+        };
+    }
+
+    // ---- Static lights ----
+
+    /** Drop the static lights and set the map size (in map-local pixels) */
+    public void beginStatic(double mapWidth, double mapHeight) {
+        staticWidth = (int) Math.ceil(mapWidth / SCALE);
+        staticHeight = (int) Math.ceil(mapHeight / SCALE);
+        staticLightCount = 0;
+    }
+
+    /** Add a light at a map-local position; full intensity at the center fading to 0 at radius */
+    public void addStaticLight(double x, double y, double radius, double intensity) {
+        int at = staticLightCount * 4;
+        if (at == staticLights.length) {
+            staticLights = Arrays.copyOf(staticLights, at * 2);
+        }
+        staticLights[at] = (float) (x / SCALE);
+        staticLights[at + 1] = (float) (y / SCALE);
+        staticLights[at + 2] = (float) (radius / SCALE);
+        staticLights[at + 3] = (float) intensity;
+        staticLightCount++;
+    }
+
+    /** Use the new static lights; chunks are baked as they come into view */
+    public void finishStatic() {
+        chunkCache.clear();
+        staticVersion++;
+    }
+
+    /** Changes whenever the static lights are rebaked */
+    public int getStaticVersion() {
+        return staticVersion;
+    }
+
+    // ---- Per frame ----
+
+    /**
+     * Compose the overlay for one frame and draw it over the whole canvas.
+     * (originX, originY) is where the map's top-left corner is on screen;
+     * the player light is in screen pixels, fully lit inside 3/4 of its
+     * radius and fading out to a little past it.
+     */
+    public void render(GraphicsContext gc, double screenWidth, double screenHeight,
+                       double originX, double originY,
+                       double playerX, double playerY, double playerRadius) {
+        // Whole cells of camera offset pick the window of the static lights; the
+        // rest shifts the image. Frame cell 0 starts one cell left of/above the
+        // screen edge so the shifted image still covers it.
+        int offsetX = (int) Math.floor(originX / SCALE);
+        int offsetY = (int) Math.floor(originY / SCALE);
+        double shiftX = originX - offsetX * SCALE - SCALE;
+        double shiftY = originY - offsetY * SCALE - SCALE;
+        int firstX = -1 - offsetX, firstY = -1 - offsetY;  // map cell under frame cell 0
+        resolveWindow(Math.floorDiv(firstY, CHUNK), Math.floorDiv(firstX, CHUNK));
+        for (int cy = 0; cy < height; cy++) {
+            int my = firstY + cy;
+            int row = cy * width;
+            if (my < 0 || my >= staticHeight) {
+                Arrays.fill(frame, row, row + width, 0);
+                continue;
+            }
+            int windowRow = (my / CHUNK - windowChunkRow) * windowChunkCols;
+            int chunkRow = (my % CHUNK) * CHUNK;
+            int cx = 0;
+            while (cx < width) {
+                int mx = firstX + cx;
+                if (mx < 0 || mx >= staticWidth) {
+                    frame[row + cx++] = 0;
+                    continue;
+                }
+                // Copy the rest of this chunk's row in one go
+                int span = Math.min(Math.min(CHUNK - mx % CHUNK, staticWidth - mx), width - cx);
+                float[] chunk = windowChunks[windowRow + mx / CHUNK - windowChunkCol];
+                if (chunk == DARK_CHUNK) {
+                    Arrays.fill(frame, row + cx, row + cx + span, 0);
+                } else {
+                    System.arraycopy(chunk, chunkRow + mx % CHUNK, frame, row + cx, span);
+                }
+                cx += span;
+            }
+        }
+
+        stampPlayer((playerX - shiftX) / SCALE, (playerY - shiftY) / SCALE, playerRadius / SCALE);
+
+        // Light -> overlay alpha (black, so premultiplied and plain ARGB are the same)
+        for (int i = 0; i < pixels.length; i++) {
+            int alpha = (int) (darkness * (1 - frame[i]) * 255 + 0.5);
+            pixels[i] = alpha << 24;
+        }
+        if (image == null) {
+            image = new WritableImage(width, height);
+        }
+        image.getPixelWriter().setPixels(0, 0, width, height,
+                                         PixelFormat.getIntArgbPreInstance(), pixels, 0, width);
+
+        gc.clearRect(0, 0, screenWidth, screenHeight);
+        gc.setImageSmoothing(true);
+        gc.drawImage(image, shiftX, shiftY, width * SCALE, height * SCALE);
+    }
+
+    // ---- Static light chunks ----
+
+    /** Look up the chunks under the window whose top-left chunk is given, if it changed */
+    private void resolveWindow(int firstChunkRow, int firstChunkCol) {
+        if (firstChunkRow == windowChunkRow && firstChunkCol == windowChunkCol && windowVersion == staticVersion) {
+            return;
+        }
+        int chunkRows = (staticHeight + CHUNK - 1) / CHUNK;
+        int chunkCols = (staticWidth + CHUNK - 1) / CHUNK;
+        for (int i = 0; i < windowChunks.length; i++) {
+            int cr = firstChunkRow + i / windowChunkCols;
+            int cc = firstChunkCol + i % windowChunkCols;
+            boolean onMap = cr >= 0 && cr < chunkRows && cc >= 0 && cc < chunkCols;
+            windowChunks[i] = onMap ? getChunk(cr, cc) : DARK_CHUNK;
+        }
+        windowChunkRow = firstChunkRow;
+        windowChunkCol = firstChunkCol;
+        windowVersion = staticVersion;
+    }
+
+    private static long chunkKey(int chunkRow, int chunkCol) {
+        return ((long) chunkRow << 32) | (chunkCol & 0xFFFFFFFFL);
+    }
+
+    /** Get a baked chunk from the LRU cache, baking it if needed */
+    private float[] getChunk(int chunkRow, int chunkCol) {
+        long key = chunkKey(chunkRow, chunkCol);
+        float[] chunk = chunkCache.get(key);
+        if (chunk == null) {
+            chunk = bakeChunk(chunkRow, chunkCol);
+            chunkCache.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Stamp and blur the lights reaching one chunk. The chunk is baked with
+     * PAD extra cells on each side (cut at the map edge), which is as far as
+     * the blur reaches, so it comes out the same as blurring the whole map.
+     */
+    private float[] bakeChunk(int chunkRow, int chunkCol) {
+        int fromX = Math.max(0, chunkCol * CHUNK - PAD);
+        int fromY = Math.max(0, chunkRow * CHUNK - PAD);
+        int toX = Math.min(staticWidth, (chunkCol + 1) * CHUNK + PAD);
+        int toY = Math.min(staticHeight, (chunkRow + 1) * CHUNK + PAD);
+        int w = toX - fromX, h = toY - fromY;
+
+        Arrays.fill(bakeBuffer, 0, w * h, 0);
+        boolean lit = false;
+        for (int i = 0; i < staticLightCount * 4; i += 4) {
+            float x = staticLights[i], y = staticLights[i + 1], radius = staticLights[i + 2];
+            if (x + radius < fromX - 1 || x - radius > toX + 1
+                    || y + radius < fromY - 1 || y - radius > toY + 1) {
+                continue;
+            }
+            stamp(bakeBuffer, w, h, x - fromX, y - fromY, radius, staticLights[i + 3], 0);
+            lit = true;
+        }
+        if (!lit) {
+            return DARK_CHUNK;
+        }
+
+        for (int pass = 0; pass < BLUR_PASSES; pass++) {
+            boxBlur(bakeBuffer, blurScratch, h, w, 1, w);   // rows
+            boxBlur(blurScratch, bakeBuffer, w, h, w, 1);   // columns
+        }
+
+        float[] chunk = new float[CHUNK * CHUNK];
+        int offsetX = chunkCol * CHUNK - fromX, offsetY = chunkRow * CHUNK - fromY;
+        int chunkWidth = Math.min(CHUNK, staticWidth - chunkCol * CHUNK);
+        int chunkHeight = Math.min(CHUNK, staticHeight - chunkRow * CHUNK);
+        for (int y = 0; y < chunkHeight; y++) {
+            System.arraycopy(bakeBuffer, (offsetY + y) * w + offsetX, chunk, y * CHUNK, chunkWidth);
+        }
+        return chunk;
+    }
+
+    // ---- Player light ----
+
+    private void stampPlayer(double cx, double cy, double radius) {
+        if (radius != kernelLightRadius) {
+            kernelRadius = (int) Math.ceil(radius * 1.15);
+            int size = kernelRadius * 2 + 1;
+            kernel = new float[size * size];
+            for (int j = -kernelRadius; j <= kernelRadius; j++) {
+                for (int i = -kernelRadius; i <= kernelRadius; i++) {
+                    kernel[(j + kernelRadius) * size + i + kernelRadius] =
+                        (float) falloff(Math.sqrt(i * i + j * j), radius * 0.75, radius * 1.15);
+                }
+            }
+            kernelLightRadius = radius;
+        }
+
+        int size = kernelRadius * 2 + 1;
+        int baseX = (int) Math.floor(cx) - kernelRadius;
+        int baseY = (int) Math.floor(cy) - kernelRadius;
+        for (int j = 0; j < size; j++) {
+            int y = baseY + j;
+            if (y < 0 || y >= height) continue;
+            for (int i = 0; i < size; i++) {
+                int x = baseX + i;
+                if (x < 0 || x >= width) continue;
+                int at = y * width + x;
+                frame[at] = combine(frame[at], kernel[j * size + i]);
+            }
+        }
+    }
+
+    // ---- Helpers (all in cell units) ----
+
+    /** Add a radial light to a buffer, combined with what is already there */
+    private static void stamp(float[] buffer, int w, int h, double cx, double cy,
+                              double radius, double intensity, double innerRadius) {
+        int fromX = Math.max(0, (int) Math.floor(cx - radius));
+        int toX = Math.min(w - 1, (int) Math.ceil(cx + radius));
+        int fromY = Math.max(0, (int) Math.floor(cy - radius));
+        int toY = Math.min(h - 1, (int) Math.ceil(cy + radius));
+        for (int y = fromY; y <= toY; y++) {
+            for (int x = fromX; x <= toX; x++) {
+                double d = Math.hypot(x + 0.5 - cx, y + 0.5 - cy);
+                double light = intensity * falloff(d, innerRadius, radius);
+                if (light > 0) {
+                    int at = y * w + x;
+                    buffer[at] = combine(buffer[at], (float) light);
+                }
+            }
+        }
+    }
+
+    /** 1 up to inner, smoothly down to 0 at outer */
+    private static double falloff(double distance, double inner, double outer) {
+        if (distance <= inner) return 1;
+        if (distance >= outer) return 0;
+        double t = 1 - (distance - inner) / (outer - inner);
+        return t * t * (3 - 2 * t);
+    }
+
+    /** Overlapping lights brighten without going past full light */
+    private static float combine(float a, float b) {
+        return 1 - (1 - a) * (1 - b);
+    }
+
+    /** 3-tap box blur along one axis: lines of length n, stepping by step, lines start stride apart */
+    private static void boxBlur(float[] src, float[] dst, int lines, int n, int step, int stride) {
+        for (int line = 0; line < lines; line++) {
+            int start = line * stride;
+            for (int k = 0; k < n; k++) {
+                float sum = src[start + k * step];
+                int taps = 1;
+                if (k > 0) { sum += src[start + (k - 1) * step]; taps++; }
+                if (k < n - 1) { sum += src[start + (k + 1) * step]; taps++; }
+                dst[start + k * step] = sum / taps;
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+import java.sql.Connection;
+
+/** External MySQL server; the schema is created by running database_setup.sql by hand */
+public class MySqlBackend implements StorageBackend {
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    public MySqlBackend(String url, String user, String password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    @Override
+    public String getName() {
+        return "MySQL";
+    }
+
+    @Override
+    public boolean loadDriver() {
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+            System.out.println("✓ MySQL JDBC Driver loaded");
+            return true;
+        } catch (ClassNotFoundException e) {
+            System.err.println("✗ MySQL JDBC Driver not found!");
+            System.err.println("  Download from: https://dev.mysql.com/downloads/connector/j/");
+            System.err.println("  Place mysql-connector-java-x.x.x.jar in your classpath");
+            return false;
+        }
+    }
+
+    @Override
+    public ConnectionPool createPool(int maxSize, long borrowTimeoutMillis) {
+        return new ConnectionPool(url, user, password, maxSize, borrowTimeoutMillis);
+    }
+
+    @Override
+    public void prepare(Connection connection) {
+        // Schema is managed outside the game
+    }
+
+    @Override
+    public String getSetupHint() {
+        return "Make sure MySQL is running and database 'lightsout_game' exists";
+    }
+}
@@ -0,0 +1,79 @@
+import javafx.scene.Node;
+import javafx.scene.CacheHint;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.effect.Effect;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Paint;
+import javafx.scene.paint.RadialGradient;
+import javafx.scene.paint.Stop;
+
+/**
+ * Shared paints and effects for the map, torches, doors and exit barrier.
+ *
+ * Paints are immutable, so one instance serves every tile and node. The
+ * effects are shared too and must not be modified by callers; a node that
+ * needs a different glow gets its own DropShadow. Nodes with effects can
+ * be passed to cacheAsBitmap so the effect is rasterised once.
+ */
+public final class PaintRegistry {
+
+    private PaintRegistry() { }
+
+    // ---- Map tiles (match map.png) ----
+    public static final Color WALL_FILL = Color.rgb(80, 80, 90);
+    public static final Color WALL_STROKE = Color.rgb(50, 50, 60);
+    public static final Color EXIT_FILL = Color.rgb(255, 215, 0);
+    public static final Color EXIT_STROKE = Color.rgb(200, 160, 0);
+    public static final Color PATH_FILL = Color.rgb(245, 222, 179);
+    public static final Color PATH_STROKE = Color.rgb(210, 180, 140);
+
+    // ---- Torches ----
+    public static final Color TORCH_BASE = Color.rgb(101, 67, 33);
+    public static final Color TORCH_OUTLINE = Color.rgb(70, 40, 20);
+    // Proportional, so the same gradient fits every flame oval
+    public static final Paint TORCH_FLAME = new RadialGradient(
+        0, 0, 0.5, 0.5, 0.5, true, CycleMethod.NO_CYCLE,
+        new Stop(0, Color.rgb(255, 255, 150)),
+        new Stop(0.5, Color.rgb(255, 150, 0)),
+        new Stop(1, Color.rgb(255, 100, 0))
+    );
+
+    // ---- Puzzle doors ----
+    public static final Paint DOOR_FILL = new LinearGradient(
+        0, 0, 1, 1, true, CycleMethod.NO_CYCLE,
+        new Stop(0, Color.DARKORANGE),
+        new Stop(1, Color.GOLD)
+    );
+    public static final Color DOOR_STROKE = Color.DARKGOLDENROD;
+    public static final Effect DOOR_GLOW = dropShadow(Color.GOLD, 15, 0.4);
+    public static final Effect LABEL_SHADOW = dropShadow(Color.BLACK, 3, 0);
+
+    // ---- Exit barrier ----
+    public static final Paint BARRIER_FILL = new LinearGradient(
+        0, 0, 1, 1, true, CycleMethod.NO_CYCLE,
+        new Stop(0, Color.DARKRED),
+        new Stop(1, Color.RED)
+    );
+    public static final Color BARRIER_STROKE = Color.DARKRED;
+
+    /**
+     * Have JavaFX keep the node (with its effects) as a bitmap, so it is not
+     * rasterised again while it only moves with its parent. For static
+     * visuals like doors; the node can still be removed as usual.
+     */
+    public static <T extends Node> T cacheAsBitmap(T node) {
+        node.setCache(true);
+        node.setCacheHint(CacheHint.QUALITY);
+        return node;
+    }
+
+    private static DropShadow dropShadow(Color color, double radius, double spread) {
+        DropShadow shadow = new DropShadow();
+        shadow.setColor(color);
+        shadow.setRadius(radius);
+        shadow.setSpread(spread);
+        return shadow;
+    }
+}
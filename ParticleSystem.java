@@ -0,0 +1,203 @@
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+import java.util.Random;
+
+/**
+ * Fixed-capacity particle pool for short-lived effects (e.g. the sparkle
+ * trail in FlickeringLight).
+ *
+ * Particles live in parallel primitive arrays used as a ring buffer: a new
+ * particle takes the slot after the newest one, overwriting the oldest
+ * when the pool is full, and dead particles are skipped until their slot
+ * is reused. Nothing is allocated after construction. Rotation is kept in
+ * whole degrees so drawing uses lookup tables instead of sin/cos.
+ */
+public class ParticleSystem {
+
+    /** How particles are spawned and animated; the defaults are the sparkle trail */
+    public static class Emitter {
+        int maxPerFrame = 6;             // cap on particles spawned by one move
+        double pixelsPerParticle = 3;    // one particle per this many pixels moved
+        double trailLength = 15;         // spawn up to this far behind the movement
+        double jitter = 20;              // plus a random offset of +-jitter/2
+        double minSize = 15, maxSize = 25;
+        int minLifetime = 20, maxLifetime = 34;  // in frames
+        double fadeFrames = 35;          // opacity = remaining lifetime / fadeFrames
+        int spinDegrees = 5;             // rotation per frame
+
+        public Emitter perMove(int maxPerFrame, double pixelsPerParticle) {
+            this.maxPerFrame = maxPerFrame;
+            this.pixelsPerParticle = pixelsPerParticle;
+            return this;
+        }
+
+        public Emitter spread(double trailLength, double jitter) {
+            this.trailLength = trailLength;
+            this.jitter = jitter;
+            return this;
+        }
+
+        public Emitter size(double minSize, double maxSize) {
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        public Emitter lifetime(int minFrames, int maxFrames, double fadeFrames) {
+            this.minLifetime = minFrames;
+            this.maxLifetime = maxFrames;
+            this.fadeFrames = fadeFrames;
+            return this;
+        }
+
+        public Emitter spin(int degreesPerFrame) {
+            this.spinDegrees = degreesPerFrame;
+            return this;
+        }
+    }
+
+    private static final double[] SIN = new double[360];
+    private static final double[] COS = new double[360];
+    static {
+        for (int d = 0; d < 360; d++) {
+            SIN[d] = Math.sin(Math.toRadians(d));
+            COS[d] = Math.cos(Math.toRadians(d));
+        }
+    }
+
+    private static final Color STAR_COLOR = Color.rgb(255, 215, 0);
+
+    private final Emitter emitter;
+    private final Random random = new Random();
+
+    // Struct of arrays, indexed by ring slot
+    private final double[] x, y, size, opacity;
+    private final int[] lifetime, rotation;
+    private int newest = -1;  // slot of the most recent particle
+    private int used = 0;     // slots filled so far (up to capacity)
+    private int alive = 0;
+
+    // Star outline for the fallback drawing (no image)
+    private final double[] starX = new double[10];
+    private final double[] starY = new double[10];
+
+    public ParticleSystem(int capacity, Emitter emitter) {
+        this.emitter = emitter;
+        x = new double[capacity];
+        y = new double[capacity];
+        size = new double[capacity];
+        opacity = new double[capacity];
+        lifetime = new int[capacity];
+        rotation = new int[capacity];
+    }
+
+    /**
+     * Spawn particles behind a move from (fromX, fromY) to (toX, toY), i.e.
+     * opposite to the direction of movement.
+     */
+    public void emitTrail(double fromX, double fromY, double toX, double toY) {
+        double dx = toX - fromX;
+        double dy = toY - fromY;
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        if (distance <= 1) {
+            return;
+        }
+        int count = Math.min((int) (distance / emitter.pixelsPerParticle), emitter.maxPerFrame);
+        // Unit vector pointing backwards along the move
+        double backX = -dx / distance;
+        double backY = -dy / distance;
+        for (int i = 0; i < count; i++) {
+            double behind = random.nextDouble() * emitter.trailLength;
+            emit(toX + backX * behind + (random.nextDouble() - 0.5) * emitter.jitter,
+                 toY + backY * behind + (random.nextDouble() - 0.5) * emitter.jitter);
+        }
+    }
+
+    /** Spawn one particle, reusing the oldest slot when the pool is full */
+    public void emit(double px, double py) {
+        int capacity = x.length;
+        newest = (newest + 1) % capacity;
+        if (used < capacity) {
+            used++;
+        } else if (lifetime[newest] > 0) {
+            alive--;  // Overwriting a live particle
+        }
+        x[newest] = px;
+        y[newest] = py;
+        size[newest] = emitter.minSize + random.nextDouble() * (emitter.maxSize - emitter.minSize);
+        lifetime[newest] = emitter.minLifetime + random.nextInt(emitter.maxLifetime - emitter.minLifetime + 1);
+        opacity[newest] = 1.0;
+        rotation[newest] = random.nextInt(360);
+        alive++;
+    }
+
+    /** Advance every particle one frame */
+    public void update() {
+        for (int i = 0; i < used; i++) {
+            if (lifetime[i] <= 0) {
+                continue;
+            }
+            lifetime[i]--;
+            if (lifetime[i] == 0) {
+                alive--;
+                continue;
+            }
+            opacity[i] = lifetime[i] / emitter.fadeFrames;
+            rotation[i] = (rotation[i] + emitter.spinDegrees) % 360;
+        }
+    }
+
+    /**
+     * Draw the live particles newest first (so older ones end up on top),
+     * with the image rotated and faded, or as gold stars if image is null.
+     * The context is expected to have no transform of its own.
+     */
+    public void draw(GraphicsContext gc, Image image) {
+        if (alive == 0) {
+            return;
+        }
+        gc.save();
+        if (image == null) {
+            gc.setFill(STAR_COLOR);  // Faded through the global alpha, per particle
+        }
+        for (int n = 0, i = newest; n < used; n++, i = (i - 1 + x.length) % x.length) {
+            if (lifetime[i] <= 0) {
+                continue;
+            }
+            double c = COS[rotation[i]];
+            double s = SIN[rotation[i]];
+            if (image != null) {
+                // Same as translate(x, y) then rotate(rotation), without touching the transform stack
+                gc.setGlobalAlpha(opacity[i]);
+                gc.setTransform(c, s, -s, c, x[i], y[i]);
+                gc.drawImage(image, -size[i] / 2, -size[i] / 2, size[i], size[i]);
+            } else {
+                gc.setGlobalAlpha(opacity[i] * 0.8);
+                drawStar(gc, x[i], y[i], size[i] / 2, size[i] / 4, rotation[i]);
+            }
+        }
+        gc.restore();
+    }
+
+    public int getAliveCount() {
+        return alive;
+    }
+
+    public int getCapacity() {
+        return x.length;
+    }
+
+    /** Five-pointed star (fallback when there is no image) */
+    private void drawStar(GraphicsContext gc, double centerX, double centerY,
+                          double outerRadius, double innerRadius, int rotationDegrees) {
+        for (int i = 0; i < 10; i++) {
+            int angle = (rotationDegrees + i * 36) % 360;
+            double radius = (i % 2 == 0) ? outerRadius : innerRadius;
+            starX[i] = centerX + radius * COS[angle];
+            starY[i] = centerY + radius * SIN[angle];
+        }
+        gc.fillPolygon(starX, starY, 10);
+    }
+}
@@ -1,123 +1,98 @@
-import javafx.animation.AnimationTimer;
 import javafx.scene.Group;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 
 public class Player extends Group {
 
     private final double radius; // keeps collision radius
     private final ImageView sprite;
-    private final Image idleFrame;  // Single idle frame
-    private final Image[] walkFrames; // Animation frames for walking
+    // All three frames in one pre-scaled image: frame 0 is idle, 1-2 are the walk cycle
+    private final AssetCache.SpriteAtlas frames;
+    private static final int IDLE_FRAME = 0;
+    private static final int WALK_FRAMES = 2;
     private int currentFrame = 0;
     private long lastFrameTime = 0;
     private boolean isMoving = false;
     private boolean animationEnabled = true;
+    
+    // Simulation state (from GameSimulation): the node's translate is
+    // interpolated between the last two steps when rendering
+    private double posX, posY;
+    private double prevX, prevY;
 
     public Player(double startX, double startY, double radius) {
         this.radius = radius;
 
-        // Load frames: frame 1 is idle, frames 2-3 are walking animation
-        Image frame1 = new Image(getClass().getResource("/player/player1.png").toExternalForm());
-        Image frame2 = new Image(getClass().getResource("/player/player2.png").toExternalForm());
-        Image frame3 = new Image(getClass().getResource("/player/player3.png").toExternalForm());
-        
-        this.idleFrame = frame1;  // First frame is always idle/still
-        this.walkFrames = new Image[] { frame2, frame3 };  // Alternate between these when walking
-
-        sprite = new ImageView(idleFrame);
-        // Make sprite slightly smaller than collision radius for better visual centering
-        sprite.setFitWidth(radius * 1.8);
-        sprite.setFitHeight(radius * 1.8);
-        sprite.setPreserveRatio(true);
-        sprite.setSmooth(true);
+        // Make sprite slightly smaller than collision radius for better visual centering.
+        // The atlas is shared by every Player and already scaled to this size.
+        frames = loadFrames(radius);
+        sprite = new ImageView(frames.getImage());
+        sprite.setViewport(frames.getFrame(IDLE_FRAME));
         
         // Center the sprite on the player position
         sprite.setTranslateX(-radius * 0.9);
         sprite.setTranslateY(-radius * 0.9);
 
         getChildren().add(sprite);
+        posX = prevX = startX;
+        posY = prevY = startY;
         setTranslateX(startX);
         setTranslateY(startY);
+    }
 
-        // Animation handler - only animates when moving AND enabled
-        new AnimationTimer() {
-            @Override
-            public void handle(long now) {
-                if (isMoving && animationEnabled) {
-                    // Animate between walk frames
-                    if (now - lastFrameTime > 200_000_000) { // every 0.2 sec (slower for smoother look)
-                        currentFrame = (currentFrame + 1) % walkFrames.length;
-                        sprite.setImage(walkFrames[currentFrame]);
-                        lastFrameTime = now;
-                    }
-                } else {
-                    // Show idle frame when not moving or animation disabled
-                    sprite.setImage(idleFrame);
-                    currentFrame = 0;
-                }
-            }
-        }.start();
+    /** The shared, pre-scaled frame atlas for a player of this radius (also used to preload it) */
+    static AssetCache.SpriteAtlas loadFrames(double radius) {
+        return AssetCache.getAtlas(radius * 1.8, "player1.png", "player2.png", "player3.png");
     }
 
-    /** Player movement with wall collision and smooth centering */
-    public void move(double dx, double dy, GameMap map, boolean exitUnlocked) {
-        // Track if any movement actually occurred
-        double oldX = getTranslateX();
-        double oldY = getTranslateY();
-        
-        // Only process if there's input
-        if (dx == 0 && dy == 0) {
-            // No input - stop moving
-            if (isMoving) {
-                isMoving = false;
-                sprite.setImage(idleFrame);
-                currentFrame = 0;
+    /**
+     * Advance the walk animation. Registered with the game's FrameScheduler
+     * instead of running a private AnimationTimer per player.
+     */
+    public void animate(long now) {
+        if (isMoving && animationEnabled) {
+            // Animate between walk frames
+            if (now - lastFrameTime > 200_000_000) { // every 0.2 sec (slower for smoother look)
+                currentFrame = (currentFrame + 1) % WALK_FRAMES;
+                sprite.setViewport(frames.getFrame(1 + currentFrame));
+                lastFrameTime = now;
             }
-            return;
-        }
-
-        // Better collision radius - smaller for better centering in corridors
-        double squishFactor = 0.5; // Much smaller for proper centering
-        double effectiveRadius = radius * squishFactor;
-
-        // Calculate next position
-        double nextX = getTranslateX() + dx;
-        double nextY = getTranslateY() + dy;
-        
-        // Try full diagonal movement first
-        if (!map.collidesWithCircle(nextX, nextY, effectiveRadius, exitUnlocked)) {
-            setTranslateX(nextX);
-            setTranslateY(nextY);
         } else {
-            // Diagonal blocked - try X only, then Y only
-            if (dx != 0 && !map.collidesWithCircle(nextX, getTranslateY(), effectiveRadius, exitUnlocked)) {
-                setTranslateX(nextX);
-            }
-            if (dy != 0 && !map.collidesWithCircle(getTranslateX(), nextY, effectiveRadius, exitUnlocked)) {
-                setTranslateY(nextY);
-            }
+            // Show idle frame when not moving or animation disabled
+            sprite.setViewport(frames.getFrame(IDLE_FRAME));
+            currentFrame = 0;
         }
-        
-        // Check if position actually changed
-        boolean actuallyMoved = (getTranslateX() != oldX || getTranslateY() != oldY);
-        
-        // Update animation state based on actual movement
-        if (actuallyMoved && !isMoving) {
+    }
+
+    /**
+     * Take the latest simulation state from GameSimulation (map-local
+     * coordinates are converted by the caller).
+     */
+    public void setSimulatedPosition(double previousX, double previousY, double x, double y, boolean moving) {
+        prevX = previousX;
+        prevY = previousY;
+        posX = x;
+        posY = y;
+        if (moving && !isMoving) {
             isMoving = true;
-        } else if (!actuallyMoved && isMoving) {
-            // Tried to move but blocked - stop animation
-            isMoving = false;
-            sprite.setImage(idleFrame);
-            currentFrame = 0;
+        } else if (!moving && isMoving) {
+            stopMoving();
         }
     }
 
+    /**
+     * Place the sprite between the previous and current simulation step.
+     * alpha is how far the game loop is into the next step (0..1).
+     */
+    public void interpolate(double alpha) {
+        setTranslateX(prevX + (posX - prevX) * alpha);
+        setTranslateY(prevY + (posY - prevY) * alpha);
+    }
+
     /** Stop player movement and animation */
     public void stopMoving() {
         isMoving = false;
         currentFrame = 0;
-        sprite.setImage(idleFrame);
+        sprite.setViewport(frames.getFrame(IDLE_FRAME));
     }
     
     /** Freeze player completely (for doors/dialogs) */
@@ -125,7 +100,7 @@ public class Player extends Group {
         isMoving = false;
         animationEnabled = false;
         currentFrame = 0;
-        sprite.setImage(idleFrame);
+        sprite.setViewport(frames.getFrame(IDLE_FRAME));
     }
     
     /** Unfreeze player (allow movement and animation) */
@@ -139,7 +114,7 @@ public class Player extends Group {
     }
 
     // Utility getters
-    public double getCenterX() { return getTranslateX(); }
-    public double getCenterY() { return getTranslateY(); }
+    public double getCenterX() { return posX; }
+    public double getCenterY() { return posY; }
     public double getRadius() { return radius; }
 }
@@ -6,7 +6,7 @@ public class Puzzle {
     private final Type type;
     private final String question;
     private final String[] options;
-    private final int answerIndex;
+    private final long answerKey; // salted digest of the correct option, see AnswerKey
     private final String contentText; // for TEXT type
     private final int timeLimit; // in seconds
     private final int row, col; // tile position in map
@@ -14,25 +14,42 @@ public class Puzzle {
     public Puzzle(String id, Subject subject, Type type, String question,
                   String[] options, int answerIndex, String contentText,
                   int timeLimit, int row, int col) {
+        this(id, subject, type, question, options, AnswerKey.seal(id, answerIndex),
+             contentText, timeLimit, row, col);
+    }
+
+    private Puzzle(String id, Subject subject, Type type, String question,
+                   String[] options, long answerKey, String contentText,
+                   int timeLimit, int row, int col) {
         this.id = id;
         this.subject = subject;
         this.type = type;
         this.question = question;
         this.options = options;
-        this.answerIndex = answerIndex;
+        this.answerKey = answerKey;
         this.contentText = contentText;
         this.timeLimit = timeLimit;
         this.row = row;
         this.col = col;
     }
 
+    /** Same puzzle placed on another tile */
+    public Puzzle atPosition(int row, int col) {
+        return new Puzzle(id, subject, type, question, options, answerKey,
+                          contentText, timeLimit, row, col);
+    }
+
+    /** Checks an answer locally against the sealed answer key */
+    public boolean isCorrectAnswer(int selectedIndex) {
+        return AnswerKey.matches(answerKey, id, selectedIndex);
+    }
+
     // Getters
     public String getId() { return id; }
     public Subject getSubject() { return subject; }
     public Type getType() { return type; }
     public String getQuestion() { return question; }
     public String[] getOptions() { return options; }
-    public int getAnswerIndex() { return answerIndex; }
     public String getContentText() { return contentText; }
     public int getTimeLimit() { return timeLimit; }
     public int getRow() { return row; }
@@ -0,0 +1,354 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide in-memory cache of puzzles.
+ *
+ * - Loaded once (a random cross-section of the table, via PuzzleSampler),
+ *   then kept current by a background refresh that only reads rows newer
+ *   than the last (created_at, id) it has seen.
+ * - Indexed by Subject and difficulty; picks are served from memory, so a
+ *   level load does not touch MySQL and keeps working if it goes away.
+ * - Bounded to MAX_ENTRIES; the entries that have been cached longest are
+ *   evicted first when new rows arrive.
+ */
+public class PuzzleBank {
+
+    // Bank size can be overridden with -Dlightsout.bank.maxEntries=N
+    private static final int MAX_ENTRIES = Integer.getInteger("lightsout.bank.maxEntries", 5000);
+    private static final long REFRESH_INTERVAL_SECONDS = 60;
+    private static final int REFRESH_BATCH = 1000;
+    private static final int LOAD_CHUNK = 500;
+
+    static final String PUZZLE_COLUMNS =
+        "id, subject, question, option1, option2, option3, option4, correct_answer, " +
+        "time_limit, difficulty, created_at";
+    private static final String NEWER_THAN_QUERY =
+        "SELECT " + PUZZLE_COLUMNS + " FROM puzzles " +
+        "WHERE created_at > ? OR (created_at = ? AND id > ?) " +
+        "ORDER BY created_at, id LIMIT " + REFRESH_BATCH;
+    private static final String NEWEST_ROW_QUERY =
+        "SELECT created_at, id FROM puzzles ORDER BY created_at DESC, id DESC LIMIT 1";
+
+    private static final PuzzleBank INSTANCE = new PuzzleBank();
+
+    public static PuzzleBank getInstance() {
+        return INSTANCE;
+    }
+
+    /** One cached puzzle and its slot in the lookup lists */
+    private static final class Entry {
+        final Puzzle puzzle;
+        final String difficulty;
+        int allIndex;
+        int bucketIndex;
+
+        Entry(Puzzle puzzle, String difficulty) {
+            this.puzzle = puzzle;
+            this.difficulty = difficulty;
+        }
+    }
+
+    // Insertion order doubles as eviction order
+    private final LinkedHashMap<Integer, Entry> byId = new LinkedHashMap<>();
+    private final List<Entry> all = new ArrayList<>();
+    private final Map<Subject, Map<String, List<Entry>>> buckets = new EnumMap<>(Subject.class);
+    private final PuzzleSampler sampler = new PuzzleSampler("puzzles");
+    private final Random random = new Random();
+
+    private Timestamp lastCreatedAt = new Timestamp(0);
+    private int lastId = 0;
+    private boolean loaded = false;
+
+    private volatile ConnectionPool pool;
+    private ScheduledExecutorService refresher;
+
+    private PuzzleBank() {
+        for (Subject subject : Subject.values()) {
+            buckets.put(subject, new HashMap<>());
+        }
+    }
+
+    // ---- Connection lifecycle ----
+
+    /** Uses this pool for loading and starts the background refresh */
+    public synchronized void attach(ConnectionPool pool) {
+        this.pool = pool;
+        if (refresher == null) {
+            refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "puzzle-bank-refresh");
+                t.setDaemon(true);
+                return t;
+            });
+            refresher.scheduleWithFixedDelay(this::refreshQuietly,
+                REFRESH_INTERVAL_SECONDS, REFRESH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /** Stops using this pool; cached puzzles stay available */
+    public synchronized void detach(ConnectionPool pool) {
+        if (this.pool == pool) {
+            this.pool = null;
+        }
+    }
+
+    // ---- Loading ----
+
+    /** Initial load: a random cross-section of up to MAX_ENTRIES rows */
+    public void loadIfNeeded() throws SQLException {
+        ConnectionPool source = pool;
+        if (source == null || isLoaded()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try (ConnectionPool.PooledConnection pooled = source.borrow()) {
+            Connection connection = pooled.getConnection();
+
+            // Take the watermark first so rows added during the load are picked up by refresh
+            Timestamp newestAt = new Timestamp(0);
+            int newestId = 0;
+            try (Statement stmt = pooled.createStatement();
+                 ResultSet rs = stmt.executeQuery(NEWEST_ROW_QUERY)) {
+                if (rs.next()) {
+                    newestAt = rs.getTimestamp(1);
+                    newestId = rs.getInt(2);
+                }
+            }
+
+            sampler.reload(connection);
+            int[] ids = sampler.sampleIds(connection, MAX_ENTRIES);
+            List<Entry> rows = new ArrayList<>(ids.length);
+            for (int from = 0; from < ids.length; from += LOAD_CHUNK) {
+                int[] chunk = java.util.Arrays.copyOfRange(ids, from, Math.min(ids.length, from + LOAD_CHUNK));
+                PreparedStatement pstmt = pooled.prepare(sampler.selectByIdsQuery(PUZZLE_COLUMNS, chunk.length));
+                PuzzleSampler.bindIds(pstmt, chunk);
+                readEntries(pstmt, rows);
+            }
+
+            synchronized (this) {
+                for (Entry entry : rows) {
+                    put(entry);
+                }
+                lastCreatedAt = newestAt;
+                lastId = newestId;
+                loaded = true;
+            }
+        }
+        System.out.printf("✓ Puzzle bank loaded %d puzzles in %.1f ms%n",
+                          size(), (System.nanoTime() - start) / 1e6);
+    }
+
+    /** Reads rows newer than the last one seen; older cached entries are evicted past the bound */
+    public void refresh() throws SQLException {
+        ConnectionPool source = pool;
+        if (source == null || !isLoaded()) {
+            return;
+        }
+
+        List<Entry> rows = new ArrayList<>();
+        try (ConnectionPool.PooledConnection pooled = source.borrow()) {
+            PreparedStatement pstmt = pooled.prepare(NEWER_THAN_QUERY);
+            synchronized (this) {
+                pstmt.setTimestamp(1, lastCreatedAt);
+                pstmt.setTimestamp(2, lastCreatedAt);
+                pstmt.setInt(3, lastId);
+            }
+            readEntries(pstmt, rows);
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        synchronized (this) {
+            for (Entry entry : rows) {
+                put(entry);
+            }
+        }
+        System.out.println("✓ Puzzle bank refreshed: +" + rows.size() + " (" + size() + " cached)");
+    }
+
+    private void refreshQuietly() {
+        try {
+            if (isLoaded()) {
+                refresh();
+            } else {
+                loadIfNeeded();
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("⚠ Puzzle bank refresh failed, serving cached puzzles: " + e.getMessage());
+        }
+    }
+
+    /** Reads PUZZLE_COLUMNS rows and advances the (created_at, id) watermark */
+    private void readEntries(PreparedStatement pstmt, List<Entry> out) throws SQLException {
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                String difficulty = rs.getString("difficulty");
+                out.add(new Entry(readPuzzle(rs, 0, 0),
+                                  difficulty == null ? "MEDIUM" : difficulty.toUpperCase()));
+
+                Timestamp createdAt = rs.getTimestamp("created_at");
+                int id = rs.getInt("id");
+                synchronized (this) {
+                    if (createdAt != null && (createdAt.after(lastCreatedAt)
+                            || (createdAt.equals(lastCreatedAt) && id > lastId))) {
+                        lastCreatedAt = createdAt;
+                        lastId = id;
+                    }
+                }
+            }
+        }
+    }
+
+    /** Builds an MCQ puzzle from the current row of a result with the puzzle columns */
+    static Puzzle readPuzzle(ResultSet rs, int row, int col) throws SQLException {
+        String id = "db_" + rs.getInt("id");
+        String subjectStr = rs.getString("subject");
+        Subject subject = Subject.valueOf(subjectStr.toUpperCase());
+        String question = rs.getString("question");
+
+        String[] options = {
+            rs.getString("option1"),
+            rs.getString("option2"),
+            rs.getString("option3"),
+            rs.getString("option4")
+        };
+
+        int correctAnswer = rs.getInt("correct_answer") - 1; // Convert to 0-indexed
+        int timeLimit = rs.getInt("time_limit");
+
+        return new Puzzle(id, subject, Puzzle.Type.MCQ, question,
+                          options, correctAnswer, null, timeLimit,
+                          row, col);
+    }
+
+    // ---- Selection ----
+
+    /** Up to count distinct random puzzles from the whole bank */
+    public List<Puzzle> pick(int count) {
+        return pick(null, (Collection<String>) null, count);
+    }
+
+    /**
+     * Up to count distinct random puzzles matching subject and difficulty;
+     * either filter may be null to match everything.
+     */
+    public List<Puzzle> pick(Subject subject, String difficulty, int count) {
+        return pick(subject, difficulty == null ? null : Collections.singletonList(difficulty.toUpperCase()), count);
+    }
+
+    /** Same, with any of several difficulties (null = all) */
+    public synchronized List<Puzzle> pick(Subject subject, Collection<String> difficulties, int count) {
+        List<List<Entry>> pools = new ArrayList<>();
+        if (subject == null && difficulties == null) {
+            pools.add(all);
+        } else {
+            for (Subject s : Subject.values()) {
+                if (subject != null && s != subject) continue;
+                for (Map.Entry<String, List<Entry>> bucket : buckets.get(s).entrySet()) {
+                    if (difficulties == null || difficulties.contains(bucket.getKey())) {
+                        pools.add(bucket.getValue());
+                    }
+                }
+            }
+        }
+
+        int total = 0;
+        for (List<Entry> list : pools) {
+            total += list.size();
+        }
+
+        // Rejection sampling: count is tiny compared to the bank, so this stays O(count)
+        List<Puzzle> picked = new ArrayList<>(Math.min(count, total));
+        if (total <= count) {
+            for (List<Entry> list : pools) {
+                for (Entry entry : list) {
+                    picked.add(entry.puzzle);
+                }
+            }
+            return picked;
+        }
+        Set<Integer> chosen = new HashSet<>();
+        while (picked.size() < count) {
+            int n = random.nextInt(total);
+            if (!chosen.add(n)) continue;
+            for (List<Entry> list : pools) {
+                if (n < list.size()) {
+                    picked.add(list.get(n).puzzle);
+                    break;
+                }
+                n -= list.size();
+            }
+        }
+        return picked;
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    // ---- Index maintenance ----
+
+    private void put(Entry entry) {
+        int id = Integer.parseInt(entry.puzzle.getId().substring(3));
+        Entry old = byId.remove(id);
+        if (old != null) {
+            unlink(old);
+        }
+
+        byId.put(id, entry);
+        entry.allIndex = all.size();
+        all.add(entry);
+        List<Entry> bucket = buckets.get(entry.puzzle.getSubject())
+                                    .computeIfAbsent(entry.difficulty, d -> new ArrayList<>());
+        entry.bucketIndex = bucket.size();
+        bucket.add(entry);
+
+        Iterator<Entry> eldest = byId.values().iterator();
+        while (byId.size() > MAX_ENTRIES) {
+            Entry evicted = eldest.next();
+            eldest.remove();
+            unlink(evicted);
+        }
+    }
+
+    /** Swap-removes an entry from the flat list and its bucket */
+    private void unlink(Entry entry) {
+        Entry moved = all.remove(all.size() - 1);
+        if (moved != entry) {
+            all.set(entry.allIndex, moved);
+            moved.allIndex = entry.allIndex;
+        }
+
+        List<Entry> bucket = buckets.get(entry.puzzle.getSubject()).get(entry.difficulty);
+        Entry movedInBucket = bucket.remove(bucket.size() - 1);
+        if (movedInBucket != entry) {
+            bucket.set(entry.bucketIndex, movedInBucket);
+            movedInBucket.bucketIndex = entry.bucketIndex;
+        }
+    }
+}
@@ -35,8 +35,14 @@ public class PuzzleDoor {
         return puzzle;
     }
 
-    /** Show puzzle window without blocking the game */
-    public void trigger(Stage parentStage, java.util.function.Consumer<Boolean> onComplete) {
+    /**
+     * Show puzzle window without blocking the game. onComplete gets whether the
+     * puzzle was solved and the response time in ms: from the window opening to
+     * the answer being submitted (or the time running out), not counting the
+     * feedback shown afterwards.
+     */
+    public void trigger(Stage parentStage, java.util.function.BiConsumer<Boolean, Long> onComplete) {
+        long openedAt = System.nanoTime();
         int timeLimit = puzzle.getTimeLimit();
         Label timerLabel = new Label("Time: " + timeLimit);
         timerLabel.setFont(javafx.scene.text.Font.font("Comic Sans MS", 18));
@@ -66,7 +72,7 @@ public class PuzzleDoor {
                 });
                 solved = false;
                 System.out.println("PuzzleDoor: time-up for puzzle " + puzzle.getId());
-                onComplete.accept(false);
+                onComplete.accept(false, elapsedMillis(openedAt));
             }
         });
         countdown.getKeyFrames().add(kf);
@@ -162,7 +168,8 @@ public class PuzzleDoor {
                 RadioButton selected = (RadioButton) group.getSelectedToggle();
                 if (selected != null) {
                     int answer = (int) selected.getUserData();
-                    solved = (answer == puzzle.getAnswerIndex());
+                    long responseMillis = elapsedMillis(openedAt);
+                    solved = puzzle.isCorrectAnswer(answer);
                     finished[0] = true;
                     countdown.stop();
 
@@ -170,7 +177,7 @@ public class PuzzleDoor {
                         // Correct answer - close immediately without animation
                         Platform.runLater(() -> dialogStage.close());
                         System.out.println("PuzzleDoor: MCQ puzzle " + puzzle.getId() + " solved=true");
-                        onComplete.accept(true);
+                        onComplete.accept(true, responseMillis);
                     } else {
                         // Wrong answer - show white X for 2 seconds
                         box.getChildren().clear();
@@ -184,7 +191,7 @@ public class PuzzleDoor {
                         pause.setOnFinished(ev -> {
                             Platform.runLater(() -> dialogStage.close());
                             System.out.println("PuzzleDoor: MCQ puzzle " + puzzle.getId() + " solved=false");
-                            onComplete.accept(false);
+                            onComplete.accept(false, responseMillis);
                         });
                         pause.play();
                     }
@@ -206,7 +213,7 @@ public class PuzzleDoor {
                     countdown.stop();
                     Platform.runLater(() -> dialogStage.close());
                     System.out.println("PuzzleDoor: text puzzle " + puzzle.getId() + " auto-complete");
-                    onComplete.accept(true);
+                    onComplete.accept(true, elapsedMillis(openedAt));
                 }
             });
             pause.play();
@@ -218,12 +225,16 @@ public class PuzzleDoor {
                 finished[0] = true;
                 solved = false;
                 countdown.stop();
-                onComplete.accept(false);
+                onComplete.accept(false, elapsedMillis(openedAt));
             }
         });
 
         dialogStage.show(); // ✅ Non-blocking window
     }
+
+    private static long elapsedMillis(long sinceNanos) {
+        return (System.nanoTime() - sinceNanos) / 1_000_000;
+    }
     
     /**
      * Show a "Try Again" window for wrong answers or timeout
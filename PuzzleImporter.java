@@ -0,0 +1,471 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams a CSV or JSON question file into the puzzles table.
+ *
+ * Rows are read one at a time (the file is never loaded whole), checked
+ * against the puzzles schema and written with JDBC batch inserts, committing
+ * every COMMIT_ROWS rows. Invalid rows are skipped and reported with the
+ * line of the file they start on.
+ *
+ * Run:  java [-Dlightsout.db=mysql] PuzzleImporter questions.csv|questions.json
+ *
+ * CSV:  header row with subject,question,option1,option2,option3,option4,
+ *       correct_answer[,difficulty][,time_limit]; fields may be "quoted".
+ * JSON: an array of objects (or one object per line) with the same keys.
+ */
+public class PuzzleImporter {
+
+    private static final int BATCH_ROWS = 1000;
+    private static final int COMMIT_ROWS = 10_000;
+    private static final long PROGRESS_INTERVAL_MS = 2000;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private static final String INSERT_PUZZLE =
+        "INSERT INTO puzzles (subject, question, option1, option2, option3, option4, " +
+        "correct_answer, difficulty, time_limit) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /** One source row as column name -> raw value */
+    interface RowReader {
+        /** The next row, or null at the end; MalformedRowException skips just that row */
+        Map<String, String> next() throws IOException;
+
+        /** File line (from 1) on which the row last read by next() starts */
+        long getLine();
+    }
+
+    /** A row that could not be parsed; the reader has moved past it */
+    static class MalformedRowException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        MalformedRowException(String message) {
+            super(message);
+        }
+    }
+
+    /** Counts line breaks (\n, \r\n or \r) in the characters read */
+    static class LineCounter {
+        private long breaks = 0;
+        private boolean afterCarriageReturn = false;
+
+        void count(int c) {
+            if (c == '\r' || (c == '\n' && !afterCarriageReturn)) {
+                breaks++;
+            }
+            afterCarriageReturn = c == '\r';
+        }
+
+        /** Line of the next character to be read */
+        long line() {
+            return breaks + 1;
+        }
+    }
+
+    private long imported = 0;
+    private long committed = 0;
+    private long rejected = 0;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            System.err.println("Usage: java PuzzleImporter <questions.csv | questions.json>");
+            System.exit(1);
+        }
+
+        StorageBackend backend = DatabaseManager.createBackend();
+        if (!backend.loadDriver()) {
+            System.exit(1);
+        }
+
+        try (ConnectionPool pool = backend.createPool(1, 5000);
+             ConnectionPool.PooledConnection pooled = pool.borrow();
+             BufferedReader in = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            backend.prepare(pooled.getConnection());
+
+            RowReader rows = args[0].toLowerCase().endsWith(".json")
+                ? new JsonRowReader(in) : new CsvRowReader(in);
+            System.out.println("📥 Importing " + args[0] + " into " + backend.getName());
+            new PuzzleImporter().run(pooled.getConnection(), rows);
+        }
+    }
+
+    /** Reads every row and writes the valid ones; returns the number imported */
+    public long run(Connection connection, RowReader rows) throws IOException, SQLException {
+        long start = System.currentTimeMillis();
+        long lastReport = start;
+        int inBatch = 0;
+        int sinceCommit = 0;
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_PUZZLE)) {
+            while (true) {
+                Map<String, String> row;
+                try {
+                    row = rows.next();
+                } catch (MalformedRowException e) {
+                    reject(rows.getLine(), e.getMessage());
+                    continue;
+                }
+                if (row == null) break;
+
+                String error = bind(insert, row);
+                if (error != null) {
+                    reject(rows.getLine(), error);
+                    continue;
+                }
+                insert.addBatch();
+                inBatch++;
+                sinceCommit++;
+
+                if (inBatch == BATCH_ROWS) {
+                    insert.executeBatch();
+                    imported += inBatch;
+                    inBatch = 0;
+                }
+                if (sinceCommit >= COMMIT_ROWS) {
+                    connection.commit();
+                    committed = imported;
+                    sinceCommit = 0;
+                }
+
+                long now = System.currentTimeMillis();
+                if (now - lastReport >= PROGRESS_INTERVAL_MS) {
+                    lastReport = now;
+                    report("⏳", start);
+                }
+            }
+            if (inBatch > 0) {
+                insert.executeBatch();
+                imported += inBatch;
+            }
+            connection.commit();
+            committed = imported;
+        } catch (SQLException | IOException | RuntimeException e) {
+            connection.rollback();
+            System.err.println("✗ Import stopped at line " + rows.getLine() + ": " + e.getMessage());
+            System.err.println("  " + committed + " rows committed before the error are kept");
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+
+        report("✓", start);
+        return imported;
+    }
+
+    private void report(String icon, long startMillis) {
+        double seconds = Math.max(0.001, (System.currentTimeMillis() - startMillis) / 1000.0);
+        System.out.printf("%s %,d rows imported, %,d rejected (%.1f s, %,.0f rows/sec)%n",
+                          icon, imported, rejected, seconds, imported / seconds);
+    }
+
+    private void reject(long line, String error) {
+        rejected++;
+        if (rejected <= MAX_REPORTED_ERRORS) {
+            System.err.println("⚠ Row at line " + line + " skipped: " + error);
+        } else if (rejected == MAX_REPORTED_ERRORS + 1) {
+            System.err.println("⚠ More rows skipped; only the count is reported from here on");
+        }
+    }
+
+    // ---- Validation ----
+
+    /** Checks a row against the puzzles schema and binds it; returns an error message or null */
+    static String bind(PreparedStatement insert, Map<String, String> row) throws SQLException {
+        String subject = trimmed(row.get("subject"));
+        if (subject == null) return "missing subject";
+        try {
+            subject = Subject.valueOf(subject.toUpperCase()).name();
+        } catch (IllegalArgumentException e) {
+            return "unknown subject '" + subject + "'";
+        }
+
+        String question = trimmed(row.get("question"));
+        if (question == null) return "missing question";
+
+        String[] options = new String[4];
+        for (int i = 0; i < 4; i++) {
+            options[i] = trimmed(row.get("option" + (i + 1)));
+            if (options[i] == null) return "missing option" + (i + 1);
+            if (options[i].length() > 255) return "option" + (i + 1) + " longer than 255 characters";
+        }
+
+        String answer = trimmed(row.get("correct_answer"));
+        if (answer == null) return "missing correct_answer";
+        int correct;
+        try {
+            correct = Integer.parseInt(answer);
+        } catch (NumberFormatException e) {
+            return "correct_answer is not a number";
+        }
+        if (correct < 1 || correct > 4) return "correct_answer must be 1-4";
+
+        String difficulty = trimmed(row.get("difficulty"));
+        difficulty = difficulty == null ? "MEDIUM" : difficulty.toUpperCase();
+        if (!difficulty.equals("EASY") && !difficulty.equals("MEDIUM") && !difficulty.equals("HARD")) {
+            return "difficulty must be EASY, MEDIUM or HARD";
+        }
+
+        int timeLimit = 30;
+        String time = trimmed(row.get("time_limit"));
+        if (time != null) {
+            try {
+                timeLimit = Integer.parseInt(time);
+            } catch (NumberFormatException e) {
+                return "time_limit is not a number";
+            }
+            if (timeLimit <= 0) return "time_limit must be positive";
+        }
+
+        insert.setString(1, subject);
+        insert.setString(2, question);
+        for (int i = 0; i < 4; i++) {
+            insert.setString(3 + i, options[i]);
+        }
+        insert.setInt(7, correct);
+        insert.setString(8, difficulty);
+        insert.setInt(9, timeLimit);
+        return null;
+    }
+
+    private static String trimmed(String value) {
+        if (value == null) return null;
+        value = value.trim();
+        return value.isEmpty() || value.equals("null") ? null : value;
+    }
+
+    // ---- CSV ----
+
+    /**
+     * RFC 4180 style CSV: quoted fields may contain commas, "" and line
+     * breaks. Text after a field's closing quote makes the row malformed.
+     */
+    static class CsvRowReader implements RowReader {
+        private final Reader in;
+        private final List<String> header;
+        private final LineCounter lines = new LineCounter();
+        private long recordLine = 1;
+        private int pushback = -2;
+
+        CsvRowReader(Reader in) throws IOException {
+            this.in = in;
+            List<String> names = readRecord();
+            if (names == null) {
+                throw new IOException("CSV file is empty");
+            }
+            header = new ArrayList<>();
+            for (String name : names) {
+                header.add(name.trim().toLowerCase());
+            }
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            List<String> fields;
+            do {
+                fields = readRecord();
+                if (fields == null) return null;
+            } while (fields.size() == 1 && fields.get(0).trim().isEmpty());  // blank line
+
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < header.size() && i < fields.size(); i++) {
+                row.put(header.get(i), fields.get(i));
+            }
+            return row;
+        }
+
+        @Override
+        public long getLine() {
+            return recordLine;
+        }
+
+        private int read() throws IOException {
+            if (pushback != -2) {
+                int c = pushback;
+                pushback = -2;
+                return c;
+            }
+            int c = in.read();
+            lines.count(c);
+            return c;
+        }
+
+        private List<String> readRecord() throws IOException {
+            recordLine = lines.line();
+            int c = read();
+            if (c == -1) return null;
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean closed = false;  // Current field was quoted and its quote is closed
+            String malformed = null;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) throw new IOException("Unterminated quoted field");
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            closed = true;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0 && !closed) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    closed = false;
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') pushback = next;
+                    }
+                    if (malformed != null) {
+                        throw new MalformedRowException(malformed);
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else if (closed) {
+                    // Read on to the end of the record, then reject it
+                    if (malformed == null) {
+                        malformed = "text after the closing quote in field " + (fields.size() + 1);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+    }
+
+    // ---- JSON ----
+
+    /**
+     * Minimal streaming reader for flat JSON objects: accepts an array of
+     * objects or one object per line. Values may be strings, numbers,
+     * booleans or null; nested objects and arrays are not supported.
+     */
+    static class JsonRowReader implements RowReader {
+        private final Reader in;
+        private final LineCounter lines = new LineCounter();
+        private long objectLine = 1;
+        private int pushback = -2;
+
+        JsonRowReader(Reader in) {
+            this.in = in;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            // Skip array brackets and separators between objects
+            int c;
+            do {
+                c = readNonSpace();
+                if (c == -1) return null;
+            } while (c == '[' || c == ',' || c == ']');
+            objectLine = lines.line();
+            if (c != '{') throw new IOException("Expected '{' but found '" + (char) c + "'");
+
+            Map<String, String> row = new HashMap<>();
+            c = readNonSpace();
+            if (c == '}') return row;
+            while (true) {
+                if (c != '"') throw new IOException("Expected a key string");
+                String key = readString().toLowerCase();
+                if (readNonSpace() != ':') throw new IOException("Expected ':' after \"" + key + "\"");
+                row.put(key, readValue());
+
+                c = readNonSpace();
+                if (c == '}') return row;
+                if (c != ',') throw new IOException("Expected ',' or '}' in object");
+                c = readNonSpace();
+            }
+        }
+
+        @Override
+        public long getLine() {
+            return objectLine;
+        }
+
+        private int read() throws IOException {
+            if (pushback != -2) {
+                int c = pushback;
+                pushback = -2;
+                return c;
+            }
+            int c = in.read();
+            lines.count(c);
+            return c;
+        }
+
+        private int readNonSpace() throws IOException {
+            int c;
+            do {
+                c = read();
+            } while (c == ' ' || c == '\t' || c == '\n' || c == '\r');
+            return c;
+        }
+
+        private String readValue() throws IOException {
+            int c = readNonSpace();
+            if (c == '"') return readString();
+            if (c == '{' || c == '[') throw new IOException("Nested values are not supported");
+
+            StringBuilder literal = new StringBuilder();
+            while (c != -1 && c != ',' && c != '}' && c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                literal.append((char) c);
+                c = read();
+            }
+            pushback = c;
+            String value = literal.toString();
+            return value.equals("null") ? null : value;
+        }
+
+        /** Reads the rest of a string literal (opening quote already read) */
+        private String readString() throws IOException {
+            StringBuilder s = new StringBuilder();
+            while (true) {
+                int c = read();
+                if (c == -1) throw new IOException("Unterminated string");
+                if (c == '"') return s.toString();
+                if (c != '\\') {
+                    s.append((char) c);
+                    continue;
+                }
+                int e = read();
+                switch (e) {
+                    case 'n': s.append('\n'); break;
+                    case 't': s.append('\t'); break;
+                    case 'r': s.append('\r'); break;
+                    case 'b': s.append('\b'); break;
+                    case 'f': s.append('\f'); break;
+                    case 'u':
+                        char[] hex = new char[4];
+                        for (int i = 0; i < 4; i++) hex[i] = (char) read();
+                        s.append((char) Integer.parseInt(new String(hex), 16));
+                        break;
+                    default: s.append((char) e);  // \" \\ \/
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Read-only, memory-mapped puzzle pack for offline play (written by
+ * PuzzlePackExporter).
+ *
+ * Layout (little-endian):
+ *   header   HEADER_SIZE bytes: magic "LOPK", version, record count,
+ *            record offset, string table offset and length
+ *   records  RECORD_SIZE bytes each, fixed size so record i is at
+ *            recordOffset + i * RECORD_SIZE:
+ *              int id, byte subject, byte difficulty, byte answer (0-3),
+ *              byte unused, short time limit, short unused,
+ *              int question offset, 4 x int option offsets
+ *   strings  each string is an int byte length followed by UTF-8 bytes;
+ *            offsets are relative to the start of the string table
+ *
+ * Opening the pack only maps the file and checks the header; a record is
+ * decoded into a Puzzle when get() asks for it.
+ */
+public class PuzzlePack {
+
+    static final int MAGIC = 0x4B504F4C;  // "LOPK" read little-endian
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 32;
+    static final String[] DIFFICULTIES = {"EASY", "MEDIUM", "HARD"};
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int recordOffset;
+    private final int stringOffset;
+
+    private PuzzlePack(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a puzzle pack");
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException("Unsupported puzzle pack version " + buffer.getShort(4));
+        }
+        count = buffer.getInt(8);
+        recordOffset = buffer.getInt(12);
+        stringOffset = buffer.getInt(16);
+        int stringLength = buffer.getInt(20);
+        if (recordOffset + (long) count * RECORD_SIZE > stringOffset
+                || (long) stringOffset + stringLength > buffer.limit()) {
+            throw new IOException("Puzzle pack is truncated");
+        }
+    }
+
+    /** Maps the file; nothing is decoded yet */
+    public static PuzzlePack open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new PuzzlePack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public Subject getSubject(int index) {
+        return Subject.values()[buffer.get(record(index) + 4)];
+    }
+
+    public String getDifficulty(int index) {
+        return DIFFICULTIES[buffer.get(record(index) + 5)];
+    }
+
+    /** Decodes one record */
+    public Puzzle get(int index, int row, int col) {
+        int r = record(index);
+        String[] options = new String[4];
+        for (int i = 0; i < 4; i++) {
+            options[i] = string(buffer.getInt(r + 16 + i * 4));
+        }
+        return new Puzzle("db_" + buffer.getInt(r), Subject.values()[buffer.get(r + 4)],
+                          Puzzle.Type.MCQ, string(buffer.getInt(r + 12)), options,
+                          buffer.get(r + 6), null, buffer.getShort(r + 8), row, col);
+    }
+
+    /**
+     * Random puzzles for a selection, found by probing random records (only
+     * their subject/difficulty bytes are read) and decoding the hits.
+     */
+    public List<Puzzle> pick(PuzzleSelection selection, Random random) {
+        List<Puzzle> result = new ArrayList<>();
+        if (count == 0) {
+            return result;
+        }
+        Set<Integer> used = new HashSet<>();
+        for (Subject subject : Subject.values()) {
+            int wanted = selection.getCount(subject);
+            int found = 0;
+            // Bounded probing: a pack without this subject/difficulty just comes back short
+            for (int attempt = 0; attempt < wanted * 64 && found < wanted; attempt++) {
+                int index = random.nextInt(count);
+                if (getSubject(index) == subject
+                        && selection.getDifficulties().contains(getDifficulty(index))
+                        && used.add(index)) {
+                    result.add(get(index, 0, 0));
+                    found++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private int record(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Puzzle " + index + " of " + count);
+        }
+        return recordOffset + index * RECORD_SIZE;
+    }
+
+    private String string(int offset) {
+        int at = stringOffset + offset;
+        int length = buffer.getInt(at);
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(at + 4);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
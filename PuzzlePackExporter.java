@@ -0,0 +1,196 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the puzzles table to a PuzzlePack file for offline machines.
+ *
+ * Rows are read in id order, PAGE_ROWS at a time, and streamed into the
+ * file: records go to their fixed slot, strings are appended to the string
+ * table (short strings such as "True"/"False" options are stored once).
+ *
+ * Run:  java [-Dlightsout.db=mysql] PuzzlePackExporter [puzzles.pack]
+ */
+public class PuzzlePackExporter {
+
+    private static final int PAGE_ROWS = 5000;
+    private static final int DEDUPE_MAX_LENGTH = 64;
+    private static final int CHUNK_BYTES = 1 << 16;
+    private static final int MAX_REPORTED_SKIPS = 20;
+
+    private static final String PAGE_QUERY =
+        "SELECT id, subject, question, option1, option2, option3, option4, " +
+        "correct_answer, difficulty, time_limit FROM puzzles WHERE id > ? ORDER BY id LIMIT " + PAGE_ROWS;
+
+    public static void main(String[] args) throws Exception {
+        Path target = Paths.get(args.length > 0 ? args[0] : DatabaseManager.PUZZLE_PACK_PATH);
+
+        StorageBackend backend = DatabaseManager.createBackend();
+        if (!backend.loadDriver()) {
+            System.exit(1);
+        }
+        try (ConnectionPool pool = backend.createPool(1, 5000);
+             ConnectionPool.PooledConnection pooled = pool.borrow()) {
+            backend.prepare(pooled.getConnection());
+            long start = System.nanoTime();
+            int written = export(pooled.getConnection(), target);
+            System.out.printf("✓ Wrote %,d puzzles to %s (%,d bytes, %.1f s)%n",
+                              written, target, Files.size(target), (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    /** Exports every puzzle (as of the start of the export); returns how many were written */
+    public static int export(Connection connection, Path target) throws SQLException, IOException {
+        int expected;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM puzzles")) {
+            rs.next();
+            expected = rs.getInt(1);
+        }
+
+        int recordOffset = PuzzlePack.HEADER_SIZE;
+        long stringOffset = recordOffset + (long) expected * PuzzlePack.RECORD_SIZE;
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        int written = 0;
+        int skipped = 0;
+        long stringLength = 0;
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer records = ByteBuffer.allocate(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer strings = ByteBuffer.allocate(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            long recordsFlushed = recordOffset;
+            Map<String, Integer> shortStrings = new HashMap<>();
+
+            PreparedStatement page = connection.prepareStatement(PAGE_QUERY);
+            int lastId = Integer.MIN_VALUE;
+            boolean more = true;
+            while (more && written < expected) {
+                page.setInt(1, lastId);
+                more = false;
+                try (ResultSet rs = page.executeQuery()) {
+                    while (rs.next() && written < expected) {
+                        more = true;
+                        lastId = rs.getInt("id");
+
+                        Subject subject;
+                        try {
+                            subject = Subject.valueOf(rs.getString("subject").trim().toUpperCase());
+                        } catch (IllegalArgumentException | NullPointerException e) {
+                            if (++skipped <= MAX_REPORTED_SKIPS) {
+                                System.err.println("⚠ Puzzle " + lastId + " skipped: unknown subject");
+                            }
+                            continue;
+                        }
+
+                        int[] text = new int[5];
+                        String[] columns = {"question", "option1", "option2", "option3", "option4"};
+                        for (int i = 0; i < 5; i++) {
+                            String value = rs.getString(columns[i]);
+                            value = value == null ? "" : value;
+                            Integer known = value.length() <= DEDUPE_MAX_LENGTH ? shortStrings.get(value) : null;
+                            if (known != null) {
+                                text[i] = known;
+                                continue;
+                            }
+                            if (stringLength > Integer.MAX_VALUE) {
+                                throw new IOException("String table larger than 2 GB");
+                            }
+                            text[i] = (int) stringLength;
+                            if (value.length() <= DEDUPE_MAX_LENGTH) {
+                                shortStrings.put(value, text[i]);
+                            }
+                            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                            strings = ensureRoom(out, strings, stringOffset, stringLength, 4 + bytes.length);
+                            strings.putInt(bytes.length).put(bytes);
+                            stringLength += 4 + bytes.length;
+                        }
+
+                        if (records.remaining() < PuzzlePack.RECORD_SIZE) {
+                            recordsFlushed += flush(out, records, recordsFlushed);
+                        }
+                        records.putInt(lastId)
+                               .put((byte) subject.ordinal())
+                               .put(difficultyCode(rs.getString("difficulty")))
+                               .put((byte) (rs.getInt("correct_answer") - 1))  // 0-indexed like Puzzle
+                               .put((byte) 0)
+                               .putShort((short) rs.getInt("time_limit"))
+                               .putShort((short) 0);
+                        for (int offset : text) {
+                            records.putInt(offset);
+                        }
+                        written++;
+                    }
+                }
+            }
+            page.close();
+            if (skipped > 0) {
+                System.err.println("⚠ " + skipped + " puzzles with unknown subjects were skipped");
+            }
+            flush(out, records, recordsFlushed);
+            flush(out, strings, stringOffset + stringLength - strings.position());
+
+            // Rows skipped or deleted during the export leave unused record slots; count says how many are valid
+            ByteBuffer header = ByteBuffer.allocate(PuzzlePack.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(PuzzlePack.MAGIC)
+                  .putShort(PuzzlePack.VERSION)
+                  .putShort((short) 0)
+                  .putInt(written)
+                  .putInt(recordOffset)
+                  .putInt((int) stringOffset)
+                  .putInt((int) stringLength);
+            header.flip();
+            out.write(header, 0);
+            out.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        return written;
+    }
+
+    private static byte difficultyCode(String difficulty) {
+        for (int i = 0; i < PuzzlePack.DIFFICULTIES.length; i++) {
+            if (PuzzlePack.DIFFICULTIES[i].equalsIgnoreCase(difficulty)) {
+                return (byte) i;
+            }
+        }
+        return 1;  // MEDIUM, the column default
+    }
+
+    /** Flushes the string chunk if the next entry doesn't fit; oversized entries get their own buffer */
+    private static ByteBuffer ensureRoom(FileChannel out, ByteBuffer strings, long stringOffset,
+                                         long stringLength, int needed) throws IOException {
+        if (strings.remaining() >= needed) {
+            return strings;
+        }
+        flush(out, strings, stringOffset + stringLength - strings.position());
+        if (strings.capacity() < needed) {
+            return ByteBuffer.allocate(needed).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return strings;
+    }
+
+    /** Writes the buffer at a file position and empties it; returns the byte count */
+    private static int flush(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        int bytes = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            position += out.write(buffer, position);
+        }
+        buffer.clear();
+        return bytes;
+    }
+}
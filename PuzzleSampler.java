@@ -0,0 +1,101 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+
+/**
+ * Picks random puzzle rows without ORDER BY RAND().
+ *
+ * ORDER BY RAND() makes MySQL read and sort every row on each level load.
+ * Instead the primary keys are read once from the id index and kept in an
+ * int array; each sample is a partial Fisher-Yates shuffle over that array
+ * (O(k)) followed by a single "WHERE id IN (...)" primary key lookup.
+ *
+ * The id list is reloaded when it is older than MAX_ID_AGE_MS or when a
+ * lookup comes back short (rows were deleted since the last load).
+ */
+public class PuzzleSampler {
+
+    private static final long MAX_ID_AGE_MS = 5 * 60 * 1000;
+
+    private final String table;
+    private final Random random = new Random();
+
+    private int[] ids = new int[0];
+    private int idCount = 0;
+    private long loadedAt = -1;
+
+    public PuzzleSampler(String table) {
+        this.table = table;
+    }
+
+    /** Reads every id from the table's primary key index */
+    public synchronized void reload(Connection connection) throws SQLException {
+        int[] loaded = new int[Math.max(16, idCount)];
+        int count = 0;
+        try (Statement stmt = connection.createStatement()) {
+            stmt.setQueryTimeout(ConnectionPool.QUERY_TIMEOUT_SECONDS);
+            ResultSet rs = stmt.executeQuery("SELECT id FROM " + table);
+            while (rs.next()) {
+                if (count == loaded.length) {
+                    int[] grown = new int[loaded.length * 2];
+                    System.arraycopy(loaded, 0, grown, 0, count);
+                    loaded = grown;
+                }
+                loaded[count++] = rs.getInt(1);
+            }
+        }
+        ids = loaded;
+        idCount = count;
+        loadedAt = System.currentTimeMillis();
+    }
+
+    /** Forces the next sample to re-read the id list */
+    public synchronized void invalidate() {
+        loadedAt = -1;
+    }
+
+    public synchronized int getIdCount() {
+        return idCount;
+    }
+
+    /**
+     * Picks up to k distinct random ids. Only the first k slots of the id
+     * array are shuffled, so the cost does not grow with the table.
+     */
+    public synchronized int[] sampleIds(Connection connection, int k) throws SQLException {
+        if (loadedAt < 0 || System.currentTimeMillis() - loadedAt > MAX_ID_AGE_MS) {
+            reload(connection);
+        }
+
+        int n = Math.min(k, idCount);
+        int[] picked = new int[n];
+        for (int i = 0; i < n; i++) {
+            int j = i + random.nextInt(idCount - i);
+            int tmp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = tmp;
+            picked[i] = ids[i];
+        }
+        return picked;
+    }
+
+    /** SELECT with one placeholder per id, so the statement can be cached per size */
+    public String selectByIdsQuery(String columns, int count) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns)
+            .append(" FROM ").append(table).append(" WHERE id IN (");
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(')').toString();
+    }
+
+    /** Binds sampled ids to a statement built by selectByIdsQuery */
+    public static void bindIds(PreparedStatement statement, int[] ids) throws SQLException {
+        for (int i = 0; i < ids.length; i++) {
+            statement.setInt(i + 1, ids[i]);
+        }
+    }
+}
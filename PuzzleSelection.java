@@ -0,0 +1,71 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Which puzzles a level wants: how many per subject, at which difficulties.
+ *
+ *   PuzzleSelection.balanced(6, "MEDIUM")  -> 2 MATH, 2 ENGLISH, 2 SCIENCE, all MEDIUM
+ *   PuzzleSelection.forLevel(2, 5)         -> 5 balanced puzzles from the harder pool
+ */
+public class PuzzleSelection {
+
+    private static final Random RANDOM = new Random();
+
+    private final Map<Subject, Integer> perSubject;
+    private final List<String> difficulties;
+
+    public PuzzleSelection(Map<Subject, Integer> perSubject, List<String> difficulties) {
+        this.perSubject = new EnumMap<>(perSubject);
+        List<String> upper = new ArrayList<>();
+        for (String d : difficulties) {
+            upper.add(d.toUpperCase());
+        }
+        this.difficulties = Collections.unmodifiableList(upper);
+    }
+
+    /**
+     * count puzzles spread evenly over the subjects; when it doesn't divide,
+     * the extra puzzles go to randomly chosen subjects.
+     */
+    public static PuzzleSelection balanced(int count, String... difficulties) {
+        Subject[] subjects = Subject.values();
+        List<Subject> extra = new ArrayList<>(Arrays.asList(subjects));
+        Collections.shuffle(extra, RANDOM);
+
+        Map<Subject, Integer> perSubject = new EnumMap<>(Subject.class);
+        for (Subject subject : subjects) {
+            perSubject.put(subject, count / subjects.length);
+        }
+        for (int i = 0; i < count % subjects.length; i++) {
+            perSubject.merge(extra.get(i), 1, Integer::sum);
+        }
+        return new PuzzleSelection(perSubject, Arrays.asList(difficulties));
+    }
+
+    /** Level 1 draws from EASY and MEDIUM, later levels from MEDIUM and HARD */
+    public static PuzzleSelection forLevel(int level, int count) {
+        return level <= 1 ? balanced(count, "EASY", "MEDIUM")
+                          : balanced(count, "MEDIUM", "HARD");
+    }
+
+    public int getCount(Subject subject) {
+        return perSubject.getOrDefault(subject, 0);
+    }
+
+    public List<String> getDifficulties() {
+        return difficulties;
+    }
+
+    public int getTotal() {
+        int total = 0;
+        for (int n : perSubject.values()) {
+            total += n;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,70 @@
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking front for DatabaseManager.
+ *
+ * All JDBC work runs on one background "puzzle-io" thread, so the JavaFX
+ * thread never waits on MySQL and DatabaseManager (not thread-safe) is only
+ * ever used from that thread. Every call returns a CompletableFuture that
+ * falls back (e.g. to sample puzzles) if the database is slow or
+ * unreachable.
+ *
+ * A timed-out call is not cancelled: it keeps the IO thread until the JDBC
+ * call returns, and later calls (including disconnect) queue behind it.
+ * Pooled statements carry a query timeout (ConnectionPool), so that wait is
+ * bounded. Use ON_FX with the *Async methods to get back onto the
+ * FX thread, e.g. load().thenAcceptAsync(list -> ..., PuzzleService.ON_FX).
+ */
+public class PuzzleService {
+
+    private static final long CONNECT_TIMEOUT_MS = 5000;
+    private static final long LOAD_TIMEOUT_MS = 3000;
+
+    /** Runs continuations on the JavaFX application thread */
+    public static final Executor ON_FX = javafx.application.Platform::runLater;
+
+    // One daemon thread shared by all games: JDBC calls are serialized and never hold up exit
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "puzzle-io");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final DatabaseManager databaseManager;
+
+    public PuzzleService(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    /** Connects in the background; completes false on failure or timeout */
+    public CompletableFuture<Boolean> connect() {
+        return CompletableFuture.supplyAsync(databaseManager::connect, IO)
+            .completeOnTimeout(false, CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+            .exceptionally(e -> false);
+    }
+
+    /** Five puzzles for a level; offline puzzles if the database does not answer in time */
+    public CompletableFuture<List<Puzzle>> loadPuzzlesForGame(int level) {
+        return CompletableFuture.supplyAsync(() -> databaseManager.loadPuzzlesForGame(level), IO)
+            .completeOnTimeout(null, LOAD_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+            .exceptionally(e -> null)
+            .thenApply(puzzles -> {
+                if (puzzles == null) {
+                    // May run on the timeout thread while IO is still busy: the offline path is static
+                    System.err.println("⚠ Puzzle load timed out, using offline puzzles");
+                    return DatabaseManager.getOfflinePuzzles(level);
+                }
+                return puzzles;
+            });
+    }
+
+    /** Closes the pool in the background */
+    public CompletableFuture<Void> disconnect() {
+        return CompletableFuture.runAsync(databaseManager::disconnect, IO);
+    }
+}
@@ -9,12 +9,10 @@ public class PuzzleWindow {
 
     private final Stage stage;
     private final Puzzle puzzle;
-    private final DatabaseManager dbManager;
     private final PuzzleCompletionListener listener;
 
-    public PuzzleWindow(Puzzle puzzle, DatabaseManager dbManager, PuzzleCompletionListener listener) {
+    public PuzzleWindow(Puzzle puzzle, PuzzleCompletionListener listener) {
         this.puzzle = puzzle;
-        this.dbManager = dbManager;
         this.listener = listener;
 
         stage = new Stage();
@@ -73,29 +71,9 @@ public class PuzzleWindow {
             RadioButton selected = (RadioButton) group.getSelectedToggle();
             if (selected != null) {
                 int selectedIndex = (int) selected.getUserData();
-                boolean correct = dbManager.validateAnswer(puzzle.getId(), selectedIndex);
-
-                // Auto-close: Show result briefly then close automatically
-                Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                alert.setHeaderText(null);
-                alert.setContentText(correct ? "✅ Correct!" : "❌ Wrong Answer!");
-                
-                // Style the alert dialog to match
-                DialogPane dialogPane = alert.getDialogPane();
-                dialogPane.setStyle("-fx-background-color: black;");
-                dialogPane.lookup(".content.label").setStyle("-fx-text-fill: white; -fx-font-size: 18px; -fx-font-family: 'Comic Sans MS';");
-                
-                // Auto-close the result alert after 1 second
-                alert.show();
-                javafx.animation.PauseTransition pause = new javafx.animation.PauseTransition(javafx.util.Duration.seconds(1));
-                pause.setOnFinished(ev -> {
-                    alert.close();
-                    // Close puzzle window immediately
-                    stage.close();
-                    // Notify GamePanel
-                    listener.onPuzzleCompleted(correct);
-                });
-                pause.play();
+                submit.setDisable(true);  // One result per window
+                // Checked locally against the sealed answer key, no database round trip
+                showResult(puzzle.isCorrectAnswer(selectedIndex));
             }
         });
 
@@ -116,4 +94,29 @@ public class PuzzleWindow {
         stage.setScene(scene);
         stage.show();  // Non-blocking - allows game to continue
     }
+
+    /** Shows the result briefly, then closes and notifies the listener */
+    private void showResult(boolean correct) {
+        // Auto-close: Show result briefly then close automatically
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setHeaderText(null);
+        alert.setContentText(correct ? "✅ Correct!" : "❌ Wrong Answer!");
+        
+        // Style the alert dialog to match
+        DialogPane dialogPane = alert.getDialogPane();
+        dialogPane.setStyle("-fx-background-color: black;");
+        dialogPane.lookup(".content.label").setStyle("-fx-text-fill: white; -fx-font-size: 18px; -fx-font-family: 'Comic Sans MS';");
+        
+        // Auto-close the result alert after 1 second
+        alert.show();
+        javafx.animation.PauseTransition pause = new javafx.animation.PauseTransition(javafx.util.Duration.seconds(1));
+        pause.setOnFinished(ev -> {
+            alert.close();
+            // Close puzzle window immediately
+            stage.close();
+            // Notify GamePanel
+            listener.onPuzzleCompleted(correct);
+        });
+        pause.play();
+    }
 }
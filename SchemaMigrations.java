@@ -0,0 +1,44 @@
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Versioned schema changes, applied on connect for every backend.
+ *
+ * The applied version is kept in a one-row schema_version table, so each
+ * step runs exactly once per database (MySQL has no CREATE INDEX IF NOT
+ * EXISTS). Append new steps to the end of MIGRATIONS; never edit old ones.
+ */
+public class SchemaMigrations {
+
+    private static final String[] MIGRATIONS = {
+        // 1: PuzzleSelection filters by subject and difficulty
+        "CREATE INDEX idx_puzzles_subject_difficulty ON puzzles (subject, difficulty)",
+    };
+
+    /** Runs the steps this database has not seen yet */
+    public static void apply(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (version INT NOT NULL)");
+
+            int version = 0;
+            boolean hasRow = false;
+            try (ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+                if (rs.next()) {
+                    version = rs.getInt(1);
+                    hasRow = !rs.wasNull();
+                }
+            }
+            if (!hasRow) {
+                stmt.executeUpdate("INSERT INTO schema_version (version) VALUES (0)");
+            }
+
+            for (int i = version; i < MIGRATIONS.length; i++) {
+                stmt.executeUpdate(MIGRATIONS[i]);
+                stmt.executeUpdate("UPDATE schema_version SET version = " + (i + 1));
+                System.out.println("✓ Schema migration " + (i + 1) + " applied");
+            }
+        }
+    }
+}
@@ -1,17 +1,19 @@
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.Slider;
 import javafx.scene.effect.GaussianBlur;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
-import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
 import javafx.scene.media.MediaView;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
+import javafx.scene.text.Text;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 import javafx.animation.FadeTransition;
@@ -25,6 +27,9 @@ public class Start extends Application {
     static final double GAP_PX = 14;
     static final Duration CINEMATIC = Duration.millis(1500);
 
+    // Set in main so startup can report time-to-menu
+    private static long launchNanos;
+
     // App state
     private boolean musicOn = true;
     private boolean soundOn = true;
@@ -39,21 +44,41 @@ public class Start extends Application {
         // Disable maximize button
         primaryStage.setResizable(false);
         
-        // Create persistent music player once (first launch)
-        if (musicPlayer == null) {
-            Media musicMedia = new Media(getClass().getResource("music.mp3").toExternalForm());
-            musicPlayer = new MediaPlayer(musicMedia);
-            musicPlayer.setCycleCount(MediaPlayer.INDEFINITE);
-            musicPlayer.setMute(!musicOn);
-            musicPlayer.setVolume(prevMusicVolume / 100.0);
-            musicPlayer.play();
-        }
+        // Progress screen while assets load in the background
+        ProgressBar progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(SLIDER_WIDTH);
+        Text loadingText = new Text("Loading...");
+        loadingText.setFill(Color.WHITE);
+        loadingText.setFont(Font.font("Comic Sans MS", 18));
+        VBox loadingBox = new VBox(GAP_PX, loadingText, progressBar);
+        loadingBox.setAlignment(Pos.CENTER);
+        loadingBox.setStyle("-fx-background-color: black;");
+        primaryStage.setScene(new Scene(loadingBox, 800, 600, Color.BLACK));
+        primaryStage.setTitle("Start Menu");
+        primaryStage.show();
 
-        // Show the menu
-        showStartMenu(primaryStage, musicPlayer, prevMusicVolume, prevSoundVolume, musicOn, soundOn);
+        // Create persistent music player once (first launch); the menu shows as soon as it is ready
+        AssetPreloader.preload(progress -> Platform.runLater(() -> progressBar.setProgress(progress)))
+            .thenAcceptAsync(player -> {
+                if (player == null) {
+                    System.err.println("Warning: Menu will play without music.");
+                } else {
+                    musicPlayer = player;
+                    musicPlayer.setCycleCount(MediaPlayer.INDEFINITE);
+                    musicPlayer.setMute(!musicOn);
+                    musicPlayer.setVolume(prevMusicVolume / 100.0);
+                    musicPlayer.play();
+                }
+
+                // Show the menu
+                showStartMenu(primaryStage, musicPlayer, prevMusicVolume, prevSoundVolume, musicOn, soundOn);
+                System.out.printf("⏱ Menu interactive %.0f ms after launch%n",
+                                  (System.nanoTime() - launchNanos) / 1e6);
+            }, Platform::runLater);
     }
 
     // Reusable builder so GameScene can return here without recreating music
+    // (musicPlayer is null if the music could not be loaded; the buttons still work)
     public static void showStartMenu(Stage stage,
                                      MediaPlayer musicPlayer,
                                      double musicVolume,
@@ -61,39 +86,6 @@ public class Start extends Application {
                                      boolean musicOn,
                                      boolean soundOn) {
 
-        // --- Background VIDEO (muted) ---
-        MediaView mediaView = null;
-        MediaPlayer videoPlayer = null;
-        
-        try {
-            java.net.URL videoUrl = Start.class.getResource("background.mp4");
-            if (videoUrl == null) {
-                // Try loading from file system as fallback
-                java.io.File videoFile = new java.io.File("background.mp4");
-                if (videoFile.exists()) {
-                    videoUrl = videoFile.toURI().toURL();
-                }
-            }
-            
-            if (videoUrl != null) {
-                Media bgMedia = new Media(videoUrl.toExternalForm());
-                videoPlayer = new MediaPlayer(bgMedia);
-                videoPlayer.setCycleCount(MediaPlayer.INDEFINITE);
-                videoPlayer.setMute(true);
-                videoPlayer.play();
-                
-                mediaView = new MediaView(videoPlayer);
-                mediaView.setPreserveRatio(false);
-                mediaView.setFitWidth(800);
-                mediaView.setFitHeight(600);
-                mediaView.setEffect(new GaussianBlur(2));
-            } else {
-                System.err.println("Warning: background.mp4 not found. Menu will display without video.");
-            }
-        } catch (Exception e) {
-            System.err.println("Warning: Could not load background video: " + e.getMessage());
-        }
-
         // --- Buttons ---
         Button startBtn = createAgentButton("Start Game");
         Button musicBtn = createAgentButton(musicOn ? "Music" : "Music 🔇");
@@ -104,15 +96,17 @@ public class Start extends Application {
         Slider musicSlider = createSmallSlider(musicOn ? musicVolume : 0);
         Slider soundSlider = createSmallSlider(soundVolume);
 
-        // Keep musicPlayer in the requested state
-        musicPlayer.setMute(!musicOn);
-        if (!musicPlayer.isMute()) {
-            musicPlayer.setVolume(musicSlider.getValue() / 100.0);
+        // Keep musicPlayer in the requested state (the button tracks it when there is no player)
+        if (musicPlayer != null) {
+            musicPlayer.setMute(!musicOn);
+            if (!musicPlayer.isMute()) {
+                musicPlayer.setVolume(musicSlider.getValue() / 100.0);
+            }
         }
 
         // Live volume only when not muted
         musicSlider.valueProperty().addListener((obs, ov, nv) -> {
-            if (!musicPlayer.isMute()) {
+            if (musicPlayer != null && !musicPlayer.isMute()) {
                 musicPlayer.setVolume(nv.doubleValue() / 100.0);
             }
         });
@@ -120,18 +114,22 @@ public class Start extends Application {
         // Toggle music (move slider to 0 on mute as requested)
         final double[] prevMusicVol = { musicVolume };
         musicBtn.setOnAction(e -> {
-            if (musicPlayer.isMute()) {
+            if (musicBtn.getText().contains("🔇")) {
                 // Turn ON
                 double to = prevMusicVol[0] <= 0 ? 50 : prevMusicVol[0];
                 musicSlider.setValue(to);
-                musicPlayer.setMute(false);
-                musicPlayer.setVolume(musicSlider.getValue() / 100.0);
+                if (musicPlayer != null) {
+                    musicPlayer.setMute(false);
+                    musicPlayer.setVolume(musicSlider.getValue() / 100.0);
+                }
                 musicBtn.setText("Music");
             } else {
                 // Turn OFF
                 prevMusicVol[0] = musicSlider.getValue();
                 musicSlider.setValue(0);
-                musicPlayer.setMute(true);
+                if (musicPlayer != null) {
+                    musicPlayer.setMute(true);
+                }
                 musicBtn.setText("Music 🔇");
             }
         });
@@ -159,7 +157,7 @@ public class Start extends Application {
             GameScene gs = new GameScene(stage, musicPlayer,
                                         musicSlider.getValue(),
                                         soundSlider.getValue(),
-                                        !musicPlayer.isMute(),
+                                        !musicBtn.getText().contains("🔇"),
                                         !soundBtn.getText().contains("🔇"));
             gs.setLevel(1); // Start at Level 1
             gs.showWithCinematicFadeIn();
@@ -174,12 +172,7 @@ public class Start extends Application {
         );
         menuBox.setAlignment(Pos.CENTER);
 
-        StackPane root;
-        if (mediaView != null) {
-            root = new StackPane(mediaView, menuBox);
-        } else {
-            root = new StackPane(menuBox);
-        }
+        StackPane root = new StackPane(menuBox);
         StackPane.setAlignment(menuBox, Pos.CENTER);
         StackPane.setMargin(menuBox, new Insets(0));
         root.setStyle("-fx-background-color: black;"); // safety: no white flash
@@ -196,8 +189,32 @@ public class Start extends Application {
         in.setToValue(1.0);
         in.play();
 
+        // --- Background VIDEO (muted) ---
+        // Parsed once by AssetPreloader; added behind the buttons when its player is ready
+        final MediaPlayer[] videoPlayer = { null };
+        AssetPreloader.player(AssetPreloader.BACKGROUND_VIDEO).thenAcceptAsync(player -> {
+            if (player == null) {
+                System.err.println("Warning: Menu will display without video.");
+                return;
+            }
+            if (stage.getScene() != menuScene || startBtn.isDisabled()) {
+                player.dispose();  // Menu already left
+                return;
+            }
+            player.setCycleCount(MediaPlayer.INDEFINITE);
+            player.setMute(true);
+            player.play();
+            videoPlayer[0] = player;
+
+            MediaView mediaView = new MediaView(player);
+            mediaView.setPreserveRatio(false);
+            mediaView.setFitWidth(800);
+            mediaView.setFitHeight(600);
+            mediaView.setEffect(new GaussianBlur(2));
+            root.getChildren().add(0, mediaView);
+        }, Platform::runLater);
+
         // Start -> Game
-        final MediaPlayer finalVideoPlayer = videoPlayer;
         startBtn.setOnAction(e -> {
             startBtn.setDisable(true);
             musicBtn.setDisable(true);
@@ -208,14 +225,14 @@ public class Start extends Application {
             out.setFromValue(1.0);
             out.setToValue(0.0);
             out.setOnFinished(evt -> {
-                if (finalVideoPlayer != null) {
-                    finalVideoPlayer.stop();
-                    finalVideoPlayer.dispose();
+                if (videoPlayer[0] != null) {
+                    videoPlayer[0].stop();
+                    videoPlayer[0].dispose();
                 }
 
                 new GameScene(stage, musicPlayer,
                         musicSlider.getValue(), soundSlider.getValue(),
-                        !musicPlayer.isMute(),            // current musicOn
+                        !musicBtn.getText().contains("🔇"), // current musicOn
                         !soundBtn.getText().contains("🔇") // current soundOn
                 ).showWithCinematicFadeIn();
             });
@@ -268,6 +285,7 @@ public class Start extends Application {
     }
 
     public static void main(String[] args) {
+        launchNanos = System.nanoTime();
         launch(args);
     }
 }
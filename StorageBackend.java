@@ -0,0 +1,24 @@
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Where the puzzle database lives. Selected with -Dlightsout.db:
+ *   embedded (default) - file-based H2 database next to the game, no server needed
+ *   mysql              - the MySQL server configured in DatabaseManager
+ */
+public interface StorageBackend {
+
+    /** Short name for log output */
+    String getName();
+
+    /** Loads the JDBC driver; false if its jar is not on the classpath */
+    boolean loadDriver();
+
+    ConnectionPool createPool(int maxSize, long borrowTimeoutMillis);
+
+    /** Called with the first connection of a pool, e.g. to create the schema */
+    void prepare(Connection connection) throws SQLException;
+
+    /** What to check when connecting fails */
+    String getSetupHint();
+}
@@ -0,0 +1,122 @@
+/**
+ * Packed tile storage and tile queries for a maze, in map-local pixel
+ * coordinates. Tiles are kept one byte each in a single row-major array.
+ * Has no JavaFX dependencies so the game rules can run headless.
+ */
+public class TileGrid {
+
+    public static final byte PATH = 0, WALL = 1, EXIT = 2;
+
+    private final int rows, cols;
+    private final int tileSize;
+    private final byte[] tiles;
+
+    public TileGrid(int[][] layout, int tileSize) {
+        this.rows = layout.length;
+        this.cols = layout[0].length;
+        this.tileSize = tileSize;
+        this.tiles = new byte[rows * cols];
+        load(layout);
+    }
+
+    /** (Re)pack the tiles from a layout array of the same size */
+    public void load(int[][] layout) {
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                tiles[r * cols + c] = (byte) layout[r][c];
+            }
+        }
+    }
+
+    // ---- Getters ----
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getTileSize() { return tileSize; }
+
+    /** Tile value at a position (caller checks bounds) */
+    public byte getTile(int row, int col) {
+        return tiles[row * cols + col];
+    }
+
+    /** First tile with the given value in row-major order, as {row, col}, or null */
+    public int[] find(byte value) {
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == value) {
+                return new int[] { i / cols, i % cols };
+            }
+        }
+        return null;
+    }
+
+    /** Tile row under a local Y coordinate (may be outside the grid) */
+    public int tileRow(double y) {
+        return (int) (y / tileSize);
+    }
+
+    /** Tile column under a local X coordinate (may be outside the grid) */
+    public int tileCol(double x) {
+        return (int) (x / tileSize);
+    }
+
+    /** Check if a point is on the exit tile */
+    public boolean isOnExit(double x, double y) {
+        int col = tileCol(x);
+        int row = tileRow(y);
+        if (row >= 0 && row < rows && col >= 0 && col < cols) {
+            return tiles[row * cols + col] == EXIT;
+        }
+        return false;
+    }
+
+    /** Check if a point is on a specific tile */
+    public boolean isOnTile(double x, double y, int tileRow, int tileCol) {
+        return tileRow(y) == tileRow && tileCol(x) == tileCol;
+    }
+
+    /** Circle vs wall collision detection */
+    public boolean collidesWithCircle(double x, double y, double radius, boolean exitUnlocked) {
+        int centerCol = tileCol(x);
+        int centerRow = tileRow(y);
+
+        // Only the 3x3 block around the center can touch the circle; clamping
+        // is needed only when that block hangs over the grid edge
+        int fromRow = centerRow - 1, toRow = centerRow + 1;
+        int fromCol = centerCol - 1, toCol = centerCol + 1;
+        if (fromRow < 0 || toRow >= rows || fromCol < 0 || toCol >= cols) {
+            fromRow = Math.max(0, fromRow);
+            toRow = Math.min(rows - 1, toRow);
+            fromCol = Math.max(0, fromCol);
+            toCol = Math.min(cols - 1, toCol);
+        }
+        double radiusSq = radius * radius;
+
+        for (int r = fromRow; r <= toRow; r++) {
+            int rowStart = r * cols;
+            for (int c = fromCol; c <= toCol; c++) {
+                // Check if this tile should be treated as solid
+                byte tileValue = tiles[rowStart + c];
+                boolean isSolid = (tileValue == WALL) || (tileValue == EXIT && !exitUnlocked);
+
+                if (isSolid) {
+                    double rectX = c * tileSize;
+                    double rectY = r * tileSize;
+
+                    double closestX = clamp(x, rectX, rectX + tileSize);
+                    double closestY = clamp(y, rectY, rectY + tileSize);
+
+                    double dx = x - closestX;
+                    double dy = y - closestY;
+                    if (dx * dx + dy * dy < radiusSq) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Utility: clamp a value between min and max */
+    private static double clamp(double v, double min, double max) {
+        return Math.max(min, Math.min(max, v));
+    }
+}
@@ -0,0 +1,51 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lookup of special tiles (puzzle doors, triggers, ...) by tile position.
+ * Built once when a level loads so the game loop can check the player's
+ * current tile with a single lookup instead of scanning every entity.
+ */
+public class TileIndex<T> {
+
+    private final int rows;
+    private final int cols;
+    private final Map<Integer, T> entries = new HashMap<>();
+
+    public TileIndex(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /** Register an entity on a tile (replaces any previous one) */
+    public void put(int row, int col, T entity) {
+        if (inBounds(row, col)) {
+            entries.put(row * cols + col, entity);
+        }
+    }
+
+    /** Entity on the given tile, or null if there is none */
+    public T get(int row, int col) {
+        if (!inBounds(row, col) || entries.isEmpty()) {
+            return null;
+        }
+        return entries.get(row * cols + col);
+    }
+
+    /** Remove and return the entity on the given tile */
+    public T remove(int row, int col) {
+        return inBounds(row, col) ? entries.remove(row * cols + col) : null;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private boolean inBounds(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+}
@@ -24,6 +24,9 @@ CREATE TABLE IF NOT EXISTS puzzles (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- The (subject, difficulty) index used for puzzle selection is added by the
+-- game itself on first connect (SchemaMigrations.java, table schema_version).
+
 -- Step 3: Insert sample puzzle questions
 -- Feel free to add more questions or modify these!
 
@@ -59,7 +62,21 @@ INSERT INTO puzzles (subject, question, option1, option2, option3, option4, corr
 ('SCIENCE', 'What is the largest organ in the human body?', 'Heart', 'Brain', 'Skin', 'Liver', 3, 'MEDIUM', 25),
 ('SCIENCE', 'How many planets are in our solar system?', '7', '8', '9', '10', 2, 'EASY', 20);
 
--- Step 4: Verify the data
+-- Step 4: Create the puzzle attempt log (filled in batches by AttemptRecorder,
+-- which also creates this table on first use)
+CREATE TABLE IF NOT EXISTS puzzle_attempts (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    session_id VARCHAR(36) NOT NULL COMMENT 'One playthrough of the game',
+    puzzle_id VARCHAR(32) NOT NULL COMMENT 'db_<puzzles.id> or a sample puzzle id',
+    subject VARCHAR(50) NOT NULL,
+    correct BOOLEAN NOT NULL,
+    response_ms INT NOT NULL COMMENT 'Time from door opening to answer',
+    level INT NOT NULL,
+    attempted_at TIMESTAMP NOT NULL,
+    INDEX idx_attempts_session (session_id)
+);
+
+-- Step 5: Verify the data
 SELECT COUNT(*) as total_questions FROM puzzles;
 SELECT subject, COUNT(*) as count FROM puzzles GROUP BY subject;
 
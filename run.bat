@@ -23,7 +23,8 @@ if %ERRORLEVEL% NEQ 0 (
 echo ✓ Compilation successful!
 echo.
 echo [2/3] Checking database connection...
-echo      Make sure MySQL is running and database is set up!
+echo      Using the embedded database in data\ (needs h2-x.x.x.jar in lib\)
+echo      For MySQL, add -Dlightsout.db=mysql to the java command below
 echo.
 echo [3/3] Starting game...
 echo.
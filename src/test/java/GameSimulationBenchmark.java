@@ -0,0 +1,305 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Headless playthroughs of the whole game, for benchmarking and as a
+ * regression check of the game rules. Needs no display: only the
+ * javafx-base and javafx-graphics jars on the class path (MarksManager's
+ * properties, PuzzleDoor's signatures); the toolkit is never started.
+ *
+ * Each playthrough places five doors per level the way GameScene does
+ * (seeded, so runs are repeatable), then a scripted player walks to every
+ * door and on to the exit, steering tile by tile on the TileGrid with
+ * ordinary press/release input and fixed 120 Hz steps. Every second door
+ * is answered wrong once before it is solved. At the end of each level the
+ * marks and the level progression are checked; any mismatch fails the run
+ * with a non-zero exit code.
+ *
+ * Run:  mvn -B -Pbench test-compile exec:exec -Dbench.main=GameSimulationBenchmark -Dbench.args=[playthroughs]
+ */
+public class GameSimulationBenchmark {
+
+    private static final double STEP_SECONDS = 1.0 / 120;  // Same as GameScene
+    private static final int MAX_TICKS = 120 * 600;        // 10 minutes of game time
+    private static final double PLAYER_RADIUS = 20;        // GameScene.PLAYER_RADIUS
+    private static final int DOORS_PER_LEVEL = 5;
+    private static final int MIN_DOOR_DISTANCE = 3;        // From spawn, as in GameScene
+    private static final int WARMUP = 200;
+
+    public static void main(String[] args) {
+        int playthroughs = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+
+        // The game logs every move of the rules; keep that out of the timing
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int i = 0; i < WARMUP; i++) {
+                new Playthrough(i).run();
+            }
+
+            long ticks = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < playthroughs; i++) {
+                ticks += new Playthrough(i).run();
+            }
+            long nanos = System.nanoTime() - start;
+
+            console.printf("✓ %d playthroughs passed in %.1f ms (%.0f per second)%n",
+                           playthroughs, nanos / 1e6, playthroughs / (nanos / 1e9));
+            console.printf("  %.0f ticks per playthrough, %.0f ns per tick%n",
+                           (double) ticks / playthroughs, (double) nanos / ticks);
+        } catch (AssertionError e) {
+            console.println("✗ " + e.getMessage());
+            System.exit(1);
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    /** One scripted game from level 1 to the exit of level 2 */
+    private static final class Playthrough implements GameSimulation.Listener {
+        private final int seed;
+        private final GameSimulation simulation = new GameSimulation(this);
+        private final Map<PuzzleDoor, Integer> attempts = new HashMap<>();
+        private final List<PuzzleDoor> doorsToFail = new ArrayList<>();
+        private int attemptsRecorded = 0;
+        private boolean levelComplete = false;
+        private boolean gameComplete = false;
+
+        // Current level
+        private TileGrid grid;
+        private List<PuzzleDoor> doors;
+        private int[] distances;  // Steps to the current target tile, -1 = unreachable
+        private GameSimulation.Direction held;
+
+        Playthrough(int seed) {
+            this.seed = seed;
+        }
+
+        /** Plays the game and returns the number of ticks it took */
+        int run() {
+            Random random = new Random(seed);
+            startLevel(1, MazeLayouts.LEVEL_1, 45, random);
+
+            int ticks = 0;
+            while (!gameComplete) {
+                if (++ticks > MAX_TICKS) {
+                    fail("no progress after " + MAX_TICKS + " ticks (level " + simulation.getCurrentLevel()
+                         + ", " + simulation.getTotalDoorsCompleted() + " doors)");
+                }
+                steer();
+                simulation.step(STEP_SECONDS);
+                simulation.update();
+
+                if (levelComplete) {
+                    // What GameScene does when the level-complete dialog closes
+                    checkLevel(1);
+                    check(simulation.getTotalDoorsCompleted() == DOORS_PER_LEVEL, "doors after level 1");
+                    levelComplete = false;
+                    simulation.advanceLevel();
+                    startLevel(2, MazeLayouts.LEVEL_2, 35, random);
+                }
+            }
+
+            checkLevel(2);
+            check(simulation.getCurrentLevel() == 2, "finished on level " + simulation.getCurrentLevel());
+            check(simulation.getTotalDoorsCompleted() == GameSimulation.DOORS_TO_WIN, "total doors "
+                  + simulation.getTotalDoorsCompleted());
+            check(simulation.isExitUnlocked(), "exit still locked at the end");
+            check(attemptsRecorded == 2 * DOORS_PER_LEVEL + doorsToFail.size(), "attempts recorded "
+                  + attemptsRecorded);
+            return ticks;
+        }
+
+        private void startLevel(int level, int[][] layout, int tileSize, Random random) {
+            grid = new TileGrid(layout, tileSize);
+            doors = placeDoors(layout, random);
+            for (int i = 1; i < doors.size(); i += 2) {
+                doorsToFail.add(doors.get(i));
+            }
+            simulation.startLevel(level, grid, doors, PLAYER_RADIUS);
+            held = null;
+            target();
+        }
+
+        /** Five doors on random path tiles at least MIN_DOOR_DISTANCE from spawn */
+        private List<PuzzleDoor> placeDoors(int[][] layout, Random random) {
+            int[] spawn = grid.find(TileGrid.PATH);
+            List<int[]> valid = new ArrayList<>();
+            for (int r = 0; r < layout.length; r++) {
+                for (int c = 0; c < layout[r].length; c++) {
+                    if (layout[r][c] == TileGrid.PATH
+                            && Math.abs(r - spawn[0]) + Math.abs(c - spawn[1]) >= MIN_DOOR_DISTANCE) {
+                        valid.add(new int[] { r, c });
+                    }
+                }
+            }
+            List<Puzzle> puzzles = DatabaseManager.getSamplePuzzles();
+            List<PuzzleDoor> placed = new ArrayList<>();
+            for (int i = 0; i < DOORS_PER_LEVEL; i++) {
+                int[] pos = valid.remove(random.nextInt(valid.size()));
+                placed.add(new PuzzleDoor(puzzles.get(i).atPosition(pos[0], pos[1])));
+            }
+            return placed;
+        }
+
+        // ---- Scripted player ----
+
+        /** Aim at the first unsolved door in list order, or the exit once it is open */
+        private void target() {
+            for (PuzzleDoor door : doors) {
+                if (!isSolved(door)) {
+                    distances = distancesTo(door.getPuzzle().getRow(), door.getPuzzle().getCol());
+                    return;
+                }
+            }
+            distances = simulation.isExitUnlocked()
+                    ? distancesTo(simulation.getExitRow(), simulation.getExitCol())
+                    : null;
+        }
+
+        private boolean isSolved(PuzzleDoor door) {
+            Integer count = attempts.get(door);
+            return count != null && count > (doorsToFail.contains(door) ? 1 : 0);
+        }
+
+        /** Breadth-first steps from every path tile to a target tile */
+        private int[] distancesTo(int row, int col) {
+            int rows = grid.getRows(), cols = grid.getCols();
+            int[] dist = new int[rows * cols];
+            Arrays.fill(dist, -1);
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            dist[row * cols + col] = 0;
+            queue.add(row * cols + col);
+            while (!queue.isEmpty()) {
+                int at = queue.poll();
+                int r = at / cols, c = at % cols;
+                int[][] next = { { r - 1, c }, { r + 1, c }, { r, c - 1 }, { r, c + 1 } };
+                for (int[] n : next) {
+                    if (n[0] < 0 || n[0] >= rows || n[1] < 0 || n[1] >= cols) continue;
+                    int i = n[0] * cols + n[1];
+                    if (dist[i] == -1 && grid.getTile(n[0], n[1]) != TileGrid.WALL) {
+                        dist[i] = dist[at] + 1;
+                        queue.add(i);
+                    }
+                }
+            }
+            return dist;
+        }
+
+        /**
+         * Hold the key towards the next tile on the way to the target, first
+         * centering on the current tile across the direction of travel so
+         * corners are not clipped.
+         */
+        private void steer() {
+            GameSimulation.Direction wanted = null;
+            if (distances != null) {
+                double tile = grid.getTileSize();
+                double x = simulation.getPlayerX(), y = simulation.getPlayerY();
+                int row = grid.tileRow(y), col = grid.tileCol(x);
+                int cols = grid.getCols();
+                int here = distances[row * cols + col];
+                double centerX = col * tile + tile / 2, centerY = row * tile + tile / 2;
+                double tolerance = 168 * STEP_SECONDS;  // One step of movement
+
+                int[][] moves = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+                GameSimulation.Direction[] keys = GameSimulation.Direction.values();
+                for (int m = 0; m < moves.length && here > 0; m++) {
+                    int r = row + moves[m][0], c = col + moves[m][1];
+                    if (r < 0 || r >= grid.getRows() || c < 0 || c >= cols) continue;
+                    if (distances[r * cols + c] == here - 1) {
+                        boolean vertical = moves[m][1] == 0;
+                        if (vertical && Math.abs(x - centerX) > tolerance) {
+                            wanted = x < centerX ? GameSimulation.Direction.RIGHT : GameSimulation.Direction.LEFT;
+                        } else if (!vertical && Math.abs(y - centerY) > tolerance) {
+                            wanted = y < centerY ? GameSimulation.Direction.DOWN : GameSimulation.Direction.UP;
+                        } else {
+                            wanted = keys[m];
+                        }
+                        break;
+                    }
+                }
+            }
+
+            if (wanted == null && simulation.isPlayerFrozen()) {
+                // Still on a door after a wrong answer: any key continues (and retries it)
+                wanted = GameSimulation.Direction.UP;
+            }
+            if (held != wanted || simulation.isPlayerFrozen()) {
+                if (held != null) {
+                    simulation.release(held);
+                }
+                if (wanted != null) {
+                    simulation.press(wanted);
+                }
+                held = wanted;
+            }
+        }
+
+        // ---- Listener ----
+
+        @Override
+        public void onDoorReached(PuzzleDoor door) {
+            held = null;  // The simulation clears held keys at a door
+            int attempt = attempts.merge(door, 1, Integer::sum);
+            boolean solved = attempt > 1 || !doorsToFail.contains(door);
+            simulation.finishPuzzle(door, solved, 1000);
+            target();
+        }
+
+        @Override
+        public void onPuzzleAttempted(PuzzleDoor door, boolean solved, long timeSpentMillis, int level) {
+            attemptsRecorded++;
+        }
+
+        @Override
+        public void onLevelComplete(int level) {
+            check(level == 1, "level " + level + " completed; only level 1 should end this way");
+            levelComplete = true;
+        }
+
+        @Override
+        public void onExitUnlocked() {
+            target();
+        }
+
+        @Override
+        public void onGameComplete() {
+            gameComplete = true;
+        }
+
+        // ---- Checks ----
+
+        /** Marks for a finished level: one lost per door answered wrong (once per door) */
+        private void checkLevel(int level) {
+            int failed = 0;
+            for (PuzzleDoor door : doors) {
+                if (doorsToFail.contains(door)) failed++;
+            }
+            MarksManager marks = simulation.getMarksManager();
+            check(marks.getCorrectAnswers() == DOORS_PER_LEVEL, "level " + level + " correct "
+                  + marks.getCorrectAnswers());
+            check(marks.getWrongAnswers() == failed, "level " + level + " wrong " + marks.getWrongAnswers());
+            check(marks.getMarks() == DOORS_PER_LEVEL - failed, "level " + level + " marks " + marks.getMarks());
+            check(marks.isGameComplete(), "level " + level + " not complete");
+        }
+
+        private void check(boolean condition, String message) {
+            if (!condition) {
+                fail(message);
+            }
+        }
+
+        private void fail(String message) {
+            throw new AssertionError("Playthrough " + seed + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+
+/**
+ * Compares ORDER BY RAND() against PuzzleSampler on a large seeded table.
+ *
+ * Seeds a scratch table "puzzles_bench" (same columns as puzzles) in the
+ * lightsout_game database, times both strategies, then drops the table.
+ * The real puzzles table is never touched.
+ *
+ * Run:  mvn -B -Pbench test-compile exec:exec -Dbench.main=PuzzleSamplerBenchmark -Dbench.args="[rows] [iterations]"
+ * Connection settings: -Dbench.jvmArgs="-Ddb.url=... -Ddb.user=... -Ddb.password=..."
+ */
+public class PuzzleSamplerBenchmark {
+
+    private static final String TABLE = "puzzles_bench";
+    private static final String COLUMNS =
+        "id, subject, question, option1, option2, option3, option4, correct_answer, time_limit";
+    private static final int PICK = 5;
+    private static final int INSERT_BATCH = 5000;
+
+    public static void main(String[] args) throws SQLException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 300_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        String url = System.getProperty("db.url", "jdbc:mysql://localhost:3306/lightsout_game");
+        String user = System.getProperty("db.user", "root");
+        String password = System.getProperty("db.password", "");
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            seed(connection, rows);
+            try {
+                System.out.println("📊 " + rows + " rows, " + iterations + " samples of " + PICK);
+                benchmarkOrderByRand(connection, iterations);
+                benchmarkSampler(connection, iterations);
+            } finally {
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.executeUpdate("DROP TABLE IF EXISTS " + TABLE);
+                }
+            }
+        }
+    }
+
+    private static void seed(Connection connection, int rows) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DROP TABLE IF EXISTS " + TABLE);
+            stmt.executeUpdate("CREATE TABLE " + TABLE + " LIKE puzzles");
+        }
+
+        long start = System.nanoTime();
+        String[] subjects = {"MATH", "ENGLISH", "SCIENCE"};
+        Random random = new Random(42);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + TABLE + " (subject, question, option1, option2, option3, option4, " +
+                "correct_answer, time_limit) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setString(1, subjects[i % subjects.length]);
+                insert.setString(2, "Seeded question #" + i + " (" + random.nextInt(1000) + ")");
+                insert.setString(3, "A" + i);
+                insert.setString(4, "B" + i);
+                insert.setString(5, "C" + i);
+                insert.setString(6, "D" + i);
+                insert.setInt(7, 1 + random.nextInt(4));
+                insert.setInt(8, 30);
+                insert.addBatch();
+                if ((i + 1) % INSERT_BATCH == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        System.out.printf("✓ Seeded %d rows in %.1f s%n", rows, (System.nanoTime() - start) / 1e9);
+    }
+
+    private static void benchmarkOrderByRand(Connection connection, int iterations) throws SQLException {
+        String sql = "SELECT " + COLUMNS + " FROM " + TABLE + " ORDER BY RAND() LIMIT " + PICK;
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                drain(stmt);
+            }
+            report("ORDER BY RAND()", start, iterations);
+        }
+    }
+
+    private static void benchmarkSampler(Connection connection, int iterations) throws SQLException {
+        PuzzleSampler sampler = new PuzzleSampler(TABLE);
+
+        long loadStart = System.nanoTime();
+        sampler.reload(connection);
+        System.out.printf("  id list load (once):  %8.2f ms for %d ids%n",
+                          (System.nanoTime() - loadStart) / 1e6, sampler.getIdCount());
+
+        try (PreparedStatement stmt = connection.prepareStatement(sampler.selectByIdsQuery(COLUMNS, PICK))) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                PuzzleSampler.bindIds(stmt, sampler.sampleIds(connection, PICK));
+                drain(stmt);
+            }
+            report("PuzzleSampler", start, iterations);
+        }
+    }
+
+    private static void drain(PreparedStatement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                rs.getString("question");
+            }
+        }
+    }
+
+    private static void report(String name, long startNanos, int iterations) {
+        double totalMs = (System.nanoTime() - startNanos) / 1e6;
+        System.out.printf("  %-20s %8.2f ms/sample%n", name + ":", totalMs / iterations);
+    }
+}
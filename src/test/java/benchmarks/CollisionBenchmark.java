@@ -0,0 +1,185 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collision-query throughput: the int[][] lookup GameMap used before the
+ * tiles were packed, against TileGrid.collidesWithCircle.
+ *
+ * Maps are Level1 (13x13), Level2 (17x17) and a seeded 1000x1000 maze.
+ * Both paths answer the same fixed set of player-sized queries spread
+ * over the map, and setup fails if they ever disagree.
+ *
+ * The game classes are in the default package, which JMH cannot generate
+ * code for and Java cannot import, so they are reached through
+ * LambdaMetafactory. That links a plain interface call straight to the
+ * target method, the same way for both paths.
+ *
+ * Run:  mvn -B -Pbench test-compile exec:exec -Djmh.args="CollisionBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+
+    private static final int TILE_SIZE = 40;
+    private static final double RADIUS = 20;   // GameScene.PLAYER_RADIUS
+    private static final int QUERIES = 4096;   // power of two, see next()
+
+    /** One collision query, bound to a map */
+    public interface CircleQuery {
+        boolean collides(double x, double y, double radius, boolean exitUnlocked);
+    }
+
+    @Param({"13", "17", "1000"})
+    public int size;
+
+    private CircleQuery packed;
+    private CircleQuery legacy;
+    private final double[] queryX = new double[QUERIES];
+    private final double[] queryY = new double[QUERIES];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        int[][] layout = layout(size);
+
+        Class<?> gridClass = Class.forName("TileGrid");
+        Object grid = gridClass.getConstructor(int[][].class, int.class).newInstance(layout, TILE_SIZE);
+        packed = bind(gridClass, grid);
+        legacy = bind(LegacyGrid.class, new LegacyGrid(layout, TILE_SIZE));
+
+        // Queries anywhere on the map, including the border and the exit
+        Random random = new Random(7);
+        double extent = size * TILE_SIZE;
+        for (int i = 0; i < QUERIES; i++) {
+            queryX[i] = random.nextDouble() * extent;
+            queryY[i] = random.nextDouble() * extent;
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            for (boolean exitUnlocked : new boolean[] { false, true }) {
+                boolean expected = legacy.collides(queryX[i], queryY[i], RADIUS, exitUnlocked);
+                if (packed.collides(queryX[i], queryY[i], RADIUS, exitUnlocked) != expected) {
+                    throw new IllegalStateException("TileGrid disagrees with the int[][] lookup at ("
+                            + queryX[i] + ", " + queryY[i] + ") on a " + size + "x" + size + " map");
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean legacyIntArray() {
+        int i = next();
+        return legacy.collides(queryX[i], queryY[i], RADIUS, false);
+    }
+
+    @Benchmark
+    public boolean packedTileGrid() {
+        int i = next();
+        return packed.collides(queryX[i], queryY[i], RADIUS, false);
+    }
+
+    private int next() {
+        next = (next + 1) & (QUERIES - 1);
+        return next;
+    }
+
+    // ---- Fixtures ----
+
+    private static int[][] layout(int size) throws ReflectiveOperationException {
+        if (size == 13) {
+            return (int[][]) Class.forName("MazeLayouts").getField("LEVEL_1").get(null);
+        }
+        if (size == 17) {
+            return (int[][]) Class.forName("MazeLayouts").getField("LEVEL_2").get(null);
+        }
+        // Walled border, about a third of the inside walls, exit on the right edge
+        Random random = new Random(42);
+        int[][] layout = new int[size][size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                boolean border = r == 0 || c == 0 || r == size - 1 || c == size - 1;
+                layout[r][c] = border || random.nextDouble() < 0.33 ? 1 : 0;
+            }
+        }
+        layout[size / 2][size - 1] = 2;
+        return layout;
+    }
+
+    /** An interface call that links directly to target.collidesWithCircle */
+    private static CircleQuery bind(Class<?> type, Object target) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodType signature = MethodType.methodType(boolean.class, double.class, double.class, double.class, boolean.class);
+        MethodHandle method = lookup.findVirtual(type, "collidesWithCircle", signature);
+        CallSite site = LambdaMetafactory.metafactory(lookup, "collides",
+                MethodType.methodType(CircleQuery.class, type), signature, method, signature);
+        return (CircleQuery) site.getTarget().invoke(target);
+    }
+
+    /** GameMap.collidesWithCircle before the tiles were packed (map at the origin) */
+    public static final class LegacyGrid {
+        private final int[][] layout;
+        private final int tileSize;
+
+        LegacyGrid(int[][] layout, int tileSize) {
+            this.layout = layout;
+            this.tileSize = tileSize;
+        }
+
+        public int getRows() { return layout.length; }
+        public int getCols() { return layout[0].length; }
+
+        public boolean collidesWithCircle(double worldX, double worldY, double radius, boolean exitUnlocked) {
+            int centerCol = (int) (worldX / tileSize);
+            int centerRow = (int) (worldY / tileSize);
+
+            for (int r = Math.max(0, centerRow - 1); r <= Math.min(getRows() - 1, centerRow + 1); r++) {
+                for (int c = Math.max(0, centerCol - 1); c <= Math.min(getCols() - 1, centerCol + 1); c++) {
+                    int tileValue = layout[r][c];
+                    boolean isSolid = (tileValue == 1) || (tileValue == 2 && !exitUnlocked);
+
+                    if (isSolid) {
+                        double rectX = c * tileSize;
+                        double rectY = r * tileSize;
+
+                        double closestX = clamp(worldX, rectX, rectX + tileSize);
+                        double closestY = clamp(worldY, rectY, rectY + tileSize);
+
+                        double dx = worldX - closestX;
+                        double dy = worldY - closestY;
+                        if (dx * dx + dy * dy < radius * radius) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static double clamp(double v, double min, double max) {
+            return Math.max(min, Math.min(max, v));
+        }
+    }
+}